@@ -90,6 +90,10 @@ public final class VoxelGamesLibModule extends AbstractModule {
                 .toInstance(new File(Bukkit.getWorldContainer().getAbsoluteFile(), "worlds"));
         bind(File.class).annotatedWith(Names.named("WorldContainer"))
                 .toInstance(Bukkit.getWorldContainer().getAbsoluteFile());
+        bind(File.class).annotatedWith(Names.named("TemplatesFolder"))
+                .toInstance(new File(Bukkit.getWorldContainer().getAbsoluteFile(), "world_templates"));
+        bind(File.class).annotatedWith(Names.named("TrashFolder"))
+                .toInstance(new File(Bukkit.getWorldContainer().getAbsoluteFile(), "world_trash"));
         bind(File.class).annotatedWith(Names.named("GameDefinitionFolder"))
                 .toInstance(new File(dataFolder.getAbsoluteFile(), "games"));
         bind(File.class).annotatedWith(Names.named("DataFolder"))
@@ -19,6 +19,7 @@ public abstract class AbstractVictoryCondition implements VictoryCondition {
     private Phase phase;
     protected User winner;
     protected Team winnerTeam;
+    private boolean dirty = true;
 
     public AbstractVictoryCondition() {
         classname = getClass().getName().replace(VictoryConditionTypeAdapter.DEFAULT_PATH + ".", "");
@@ -46,6 +47,23 @@ public abstract class AbstractVictoryCondition implements VictoryCondition {
         return winner != null || winnerTeam != null;
     }
 
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void clearDirty() {
+        dirty = false;
+    }
+
+    /**
+     * Marks this condition as changed, so that the phase checks it on the next tick
+     */
+    protected void markDirty() {
+        dirty = true;
+    }
+
     @Override
     public List<Class<? extends Feature>> getDependencies() {
         return Collections.emptyList();
@@ -17,6 +17,25 @@ public interface VictoryCondition {
      */
     boolean completed();
 
+    /**
+     * Conditions that react to events should mark themselves dirty when something changed that could complete them,
+     * the phase will then check them on the next tick. Conditions that aren't dirty are only checked every few ticks
+     * (see {@link com.voxelgameslib.voxelgameslib.api.tick.TickConfig#victoryConditionPollInterval}).<br> Conditions
+     * that don't track that are always dirty, so they are checked every tick.
+     *
+     * @return if this condition changed since the last check
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
+    /**
+     * called by the phase after it checked this condition
+     */
+    default void clearDirty() {
+
+    }
+
     List<Class<? extends Feature>> getDependencies();
 
     Phase getPhase();
@@ -26,5 +26,6 @@ public class DuelVictoryCondition extends AbstractVictoryCondition implements Li
         if (completed()) return;
         DuelFeature duelFeature = getPhase().getFeature(DuelFeature.class);
         winner = duelFeature.getOther(e.getEntity().getUniqueId());
+        markDirty();
     }
 }
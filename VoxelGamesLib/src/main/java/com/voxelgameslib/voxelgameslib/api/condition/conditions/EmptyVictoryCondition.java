@@ -10,4 +10,9 @@ public class EmptyVictoryCondition extends AbstractVictoryCondition {
     public boolean completed() {
         return false;
     }
+
+    @Override
+    public boolean isDirty() {
+        return false;
+    }
 }
@@ -0,0 +1,69 @@
+package com.voxelgameslib.voxelgameslib.api.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+
+/**
+ * All listeners that need to be called for one concrete event class, including the listeners that were registered for
+ * one of its super classes. Built lazily by the {@link EventHandler} and thrown away when a listener for that class
+ * hierarchy is (un)registered.
+ */
+final class DispatchTable {
+
+    static final DispatchTable EMPTY = new DispatchTable();
+
+    private final List<RegisteredListener> globalListeners = new ArrayList<>();
+    private final Map<UUID, List<RegisteredListener>> gameListeners = new HashMap<>();
+    private boolean userNeeded;
+
+    void add(@Nonnull RegisteredListener registeredListener) {
+        if (registeredListener.getFilters().isEmpty()) {
+            globalListeners.add(registeredListener);
+            if (registeredListener.getMethod().getParameterCount() == 2) {
+                userNeeded = true;
+            }
+        } else {
+            gameListeners.computeIfAbsent(registeredListener.getGame().getUuid(), (key) -> new ArrayList<>()).add(registeredListener);
+        }
+    }
+
+    /**
+     * @return the listeners without filters, they are called for every event
+     */
+    @Nonnull
+    List<RegisteredListener> getGlobalListeners() {
+        return globalListeners;
+    }
+
+    /**
+     * @param game the id of the game
+     * @return the listeners with filters that belong to that game
+     */
+    @Nonnull
+    List<RegisteredListener> getGameListeners(@Nonnull UUID game) {
+        return gameListeners.getOrDefault(game, Collections.emptyList());
+    }
+
+    /**
+     * @return if any of the global listeners wants to know the user
+     */
+    boolean isUserNeeded() {
+        return userNeeded;
+    }
+
+    /**
+     * @return if there are game listeners, if not there is no need to route the event to a game
+     */
+    boolean hasGameListeners() {
+        return !gameListeners.isEmpty();
+    }
+
+    boolean isEmpty() {
+        return globalListeners.isEmpty() && gameListeners.isEmpty();
+    }
+}
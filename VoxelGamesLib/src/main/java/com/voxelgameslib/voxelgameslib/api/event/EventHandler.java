@@ -1,17 +1,15 @@
 package com.voxelgameslib.voxelgameslib.api.event;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
@@ -20,18 +18,15 @@ import javax.inject.Singleton;
 
 import com.voxelgameslib.voxelgameslib.VoxelGamesLib;
 import com.voxelgameslib.voxelgameslib.api.game.Game;
+import com.voxelgameslib.voxelgameslib.api.game.GameHandler;
 import com.voxelgameslib.voxelgameslib.components.user.User;
-import com.voxelgameslib.voxelgameslib.components.user.UserHandler;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
 
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerEvent;
 import org.bukkit.plugin.EventExecutor;
 
 @Singleton
@@ -46,17 +41,20 @@ public class EventHandler implements Handler, Listener {
 
     private final EventExecutor eventExecutor = (listener, event) -> callEvent(event);
 
-    private final Map<Class<? extends Event>, List<RegisteredListener>> activeEvents = new HashMap<>();
-    private Map<UUID, List<RegisteredListener>> activeListeners = new HashMap<>();
-
-    private Map<Class<? extends Event>, Method> reflectionCachePlayer = new HashMap<>();
-    private Map<Class<? extends Event>, Method> reflectionCacheUser = new HashMap<>();
-    private Map<Class<? extends Event>, Method> reflectionCacheEntity = new HashMap<>();
+    // all listeners per event class they were registered for
+    private final Map<Class<? extends Event>, List<RegisteredListener>> activeEvents = new ConcurrentHashMap<>();
+    // merged listeners per concrete event class, built lazily
+    private final Map<Class<? extends Event>, DispatchTable> dispatchTables = new ConcurrentHashMap<>();
+    private final AtomicLong dispatchTablesVersion = new AtomicLong();
+    // classes that own a handler list we registered our executor at
+    private final Set<Class<? extends Event>> registeredHandlerLists = new HashSet<>();
 
     @Inject
     private VoxelGamesLib voxelGamesLib;
     @Inject
-    private UserHandler userHandler;
+    private UserExtractorRegistry userExtractorRegistry;
+    @Inject
+    private GameHandler gameHandler;
 
     public void registerEvents(@Nonnull Listener listener, @Nonnull Game game) {
         Set<Class<Event>> newEvents = new HashSet<>();
@@ -72,7 +70,8 @@ public class EventHandler implements Handler, Listener {
                         Class<Event> eventClass = (Class<Event>) method.getParameterTypes()[0];
                         GameEvent annotation = method.getAnnotation(GameEvent.class);
 
-                        RegisteredListener registeredListener = new RegisteredListener(listener, game, eventClass, method, new ArrayList<>());
+                        RegisteredListener registeredListener = new RegisteredListener(listener, game, eventClass, method,
+                                EventInvokerFactory.create(listener, method), new ArrayList<>());
 
                         if (annotation.filterPlayers()) {
                             registeredListener.addFilter(filterPlayers);
@@ -81,12 +80,8 @@ public class EventHandler implements Handler, Listener {
                             registeredListener.addFilter(filterSpectators);
                         }
 
-                        activeListeners.computeIfAbsent(game.getUuid(), (key) -> new CopyOnWriteArrayList<>()).add(registeredListener);
-
-                        activeEvents.computeIfAbsent(eventClass, (key) -> {
-                            newEvents.add(eventClass);
-                            return new CopyOnWriteArrayList<>();
-                        }).add(registeredListener);
+                        activeEvents.computeIfAbsent(eventClass, (key) -> new CopyOnWriteArrayList<>()).add(registeredListener);
+                        newEvents.add(eventClass);
                     } else {
                         log.warning("Invalid parameter for " + listener.getClass().getName() + " " + method.toString());
                         return;
@@ -94,29 +89,28 @@ public class EventHandler implements Handler, Listener {
                 }
         );
 
+        newEvents.forEach(this::invalidateDispatchTables);
+
         // check if we need to register a new event
-        newEvents.forEach(eventClass ->
-                Bukkit.getServer().getPluginManager().registerEvent(eventClass, this, EventPriority.HIGH, eventExecutor, voxelGamesLib));
+        newEvents.forEach(eventClass -> {
+            Optional<Class<? extends Event>> handlerListClass = getHandlerListClass(eventClass);
+            if (!handlerListClass.isPresent()) {
+                log.warning("Can't listen to " + eventClass.getName() + " since neither it nor one of it's super classes has a handler list!");
+            } else if (registeredHandlerLists.add(handlerListClass.get())) {
+                Bukkit.getServer().getPluginManager().registerEvent(handlerListClass.get(), this, EventPriority.HIGH, eventExecutor, voxelGamesLib);
+            }
+        });
 
         // register normal events
         Bukkit.getServer().getPluginManager().registerEvents(listener, voxelGamesLib);
     }
 
     public void unregister(@Nonnull Listener listener, @Nonnull Game game) {
-        //noinspection unchecked
-        Arrays.stream(listener.getClass().getMethods())
-                .filter((method -> method.isAnnotationPresent(GameEvent.class)))
-                .filter(method -> method.getParameterCount() != 1 || method.getParameterCount() != 2)
-                .filter(method -> Event.class.isAssignableFrom(method.getParameterTypes()[0]))
-                .map(method -> (Class<Event>) method.getParameterTypes()[0]).forEach(
-                eventClass -> activeEvents.get(eventClass).removeIf(registeredListener -> registeredListener.getListener().equals(listener)));
-
-        if (activeListeners.containsKey(game.getUuid())) {
-            activeListeners.get(game.getUuid()).removeIf(registeredListener -> registeredListener.getListener().equals(listener));
-            if (activeListeners.get(game.getUuid()).size() == 0) {
-                activeListeners.remove(game.getUuid());
+        activeEvents.forEach((eventClass, listeners) -> {
+            if (listeners.removeIf(registeredListener -> registeredListener.getListener().equals(listener))) {
+                invalidateDispatchTables(eventClass);
             }
-        }
+        });
 
         HandlerList.unregisterAll(listener);
     }
@@ -131,106 +125,120 @@ public class EventHandler implements Handler, Listener {
 
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Passes the event to the registered listeners, including those that listen to a super class of the event. Listeners
+     * without filters get every event, listeners with filters only get the events of users that participate in the game
+     * they belong to. That way the cost of an event doesn't grow with the amount of running games.
+     *
+     * @param event the event to pass
+     * @param <T>   the type of the event
+     */
     public <T extends Event> void callEvent(@Nonnull T event) {
-        Class<Event> eventClass = (Class<Event>) event.getClass();
-        while (!eventClass.equals(Object.class)) {
-            if (activeEvents.containsKey(eventClass)) {
-                activeEvents.get(eventClass).forEach(registeredListener -> {
-                    Optional<User> user = Optional.empty();
-                    boolean tried = false;
-                    for (EventFilter filter : registeredListener.getFilters()) {
-                        if (!user.isPresent() && !tried) {
-                            user = figureOutUser(event);
-                            tried = true;
-                        }
-                        if (!filter.filter(event, registeredListener, user)) {
-                            return;
-                        }
-                    }
+        DispatchTable table = getDispatchTable(event.getClass());
+        if (table.isEmpty()) {
+            return;
+        }
 
-                    try {
-                        if (registeredListener.getMethod().getParameterCount() == 2) {
-                            registeredListener.getMethod().invoke(registeredListener.getListener(), event, user.orElse(null));
-                        } else {
-                            registeredListener.getMethod().invoke(registeredListener.getListener(), event);
-                        }
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        log.log(Level.SEVERE, "Error while calling eventhandler!", e);
-                    }
-                });
-                break;
-            } else {
-                eventClass = (Class<Event>) eventClass.getSuperclass();
+        Optional<User> user = Optional.empty();
+        if (table.isUserNeeded() || table.hasGameListeners()) {
+            user = userExtractorRegistry.extract(event);
+        }
+
+        for (RegisteredListener registeredListener : table.getGlobalListeners()) {
+            invoke(event, registeredListener, user);
+        }
+
+        if (!table.hasGameListeners() || !user.isPresent()) {
+            return;
+        }
+
+        for (Game game : gameHandler.getGames(user.get().getUuid(), true)) {
+            for (RegisteredListener registeredListener : table.getGameListeners(game.getUuid())) {
+                if (filter(event, registeredListener, user)) {
+                    invoke(event, registeredListener, user);
+                }
             }
         }
     }
 
     @Nonnull
-    private <T extends Event> Optional<User> figureOutUser(@Nonnull T event) {
-        if (event instanceof PlayerEvent) {
-            return userHandler.getUser(((PlayerEvent) event).getPlayer().getUniqueId());
-        } else if (event instanceof com.voxelgameslib.voxelgameslib.api.event.events.player.PlayerEvent) {
-            return Optional.of(((com.voxelgameslib.voxelgameslib.api.event.events.player.PlayerEvent) event).getUser());
+    private DispatchTable getDispatchTable(@Nonnull Class<? extends Event> eventClass) {
+        DispatchTable table = dispatchTables.get(eventClass);
+        if (table != null) {
+            return table;
         }
 
-        // search for method to get player
-        if (!reflectionCachePlayer.containsKey(event.getClass()) && !reflectionCacheUser.containsKey(event.getClass()) && !reflectionCacheEntity.containsKey(event.getClass())) {
-            Method entityMethod = null;
-            boolean found = false;
-            for (Method m : event.getClass().getMethods()) {
-                if (m.getReturnType().equals(User.class)) {
-                    reflectionCacheUser.put(event.getClass(), m);
-                    found = true;
-                    break;
-                } else if (m.getReturnType().equals(Player.class)) {
-                    reflectionCachePlayer.put(event.getClass(), m);
-                    found = true;
-                    break;
-                } else if (Entity.class.isAssignableFrom(m.getReturnType())) {
-                    entityMethod = m;
-                }
-            }
+        long version = dispatchTablesVersion.get();
+        table = buildDispatchTable(eventClass);
+        // only cache if nobody (un)registered a listener while we were building. An invalidation can still happen
+        // between the check and the put, so check again afterwards: invalidations bump the version before they remove
+        // tables, so either we see the new version here or the invalidation sees our table
+        if (version == dispatchTablesVersion.get() && dispatchTables.putIfAbsent(eventClass, table) == null
+                && version != dispatchTablesVersion.get()) {
+            dispatchTables.remove(eventClass, table);
+        }
+        return table;
+    }
 
-            // entity should be fallback, if there is something better don't use it
-            if (!found && entityMethod != null) {
-                reflectionCacheEntity.put(event.getClass(), entityMethod);
+    @Nonnull
+    private DispatchTable buildDispatchTable(@Nonnull Class<? extends Event> eventClass) {
+        DispatchTable table = null;
+        Class<?> clazz = eventClass;
+        while (clazz != null && Event.class.isAssignableFrom(clazz)) {
+            List<RegisteredListener> listeners = activeEvents.get(clazz);
+            if (listeners != null && !listeners.isEmpty()) {
+                if (table == null) {
+                    table = new DispatchTable();
+                }
+                listeners.forEach(table::add);
             }
+            clazz = clazz.getSuperclass();
         }
+        return table == null ? DispatchTable.EMPTY : table;
+    }
 
-        // check cache to find user
-        if (reflectionCacheUser.containsKey(event.getClass())) {
-            Method method = reflectionCacheUser.get(event.getClass());
-            try {
-                return Optional.of((User) method.invoke(event));
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
-                return Optional.empty();
-            }
-        } else if (reflectionCachePlayer.containsKey(event.getClass())) {
-            Method method = reflectionCachePlayer.get(event.getClass());
+    /**
+     * Throws away the dispatch tables of all concrete event classes that would include listeners of the given class
+     */
+    private void invalidateDispatchTables(@Nonnull Class<? extends Event> eventClass) {
+        dispatchTablesVersion.incrementAndGet();
+        dispatchTables.keySet().removeIf(eventClass::isAssignableFrom);
+    }
+
+    /**
+     * Bukkit registers listeners at the handler list of the first class in the hierarchy that declares
+     * <code>getHandlerList</code>, subclasses share that handler list. We only want to register our executor once per
+     * handler list, else events would be called multiple times.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private Optional<Class<? extends Event>> getHandlerListClass(@Nonnull Class<? extends Event> eventClass) {
+        Class<?> clazz = eventClass;
+        while (clazz != null && Event.class.isAssignableFrom(clazz) && !clazz.equals(Event.class)) {
             try {
-                return userHandler.getUser(((Player) method.invoke(event)).getUniqueId());
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
-                return Optional.empty();
+                clazz.getDeclaredMethod("getHandlerList");
+                return Optional.of((Class<? extends Event>) clazz);
+            } catch (NoSuchMethodException ignored) {
+                clazz = clazz.getSuperclass();
             }
-        } else if (reflectionCacheEntity.containsKey(event.getClass())) {
-            Method method = reflectionCacheEntity.get(event.getClass());
-            try {
-                Entity entity = (Entity) method.invoke(event);
-                if (entity instanceof Player) {
-                    return userHandler.getUser(entity.getUniqueId());
-                } else {
-                    return Optional.empty();
-                }
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
-                return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    private boolean filter(@Nonnull Event event, @Nonnull RegisteredListener registeredListener, @Nonnull Optional<User> user) {
+        for (EventFilter filter : registeredListener.getFilters()) {
+            if (!filter.filter(event, registeredListener, user)) {
+                return false;
             }
-        } else {
-            log.warning("Could not even a way to get a user out of " + event.getEventName() + "!");
-            return Optional.empty();
+        }
+        return true;
+    }
+
+    private void invoke(@Nonnull Event event, @Nonnull RegisteredListener registeredListener, @Nonnull Optional<User> user) {
+        try {
+            registeredListener.getInvoker().invoke(event, user.orElse(null));
+        } catch (Exception e) {
+            log.log(Level.SEVERE, "Error while calling eventhandler!", e);
         }
     }
 }
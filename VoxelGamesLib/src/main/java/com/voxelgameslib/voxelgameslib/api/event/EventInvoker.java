@@ -0,0 +1,25 @@
+package com.voxelgameslib.voxelgameslib.api.event;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.voxelgameslib.voxelgameslib.components.user.User;
+
+import org.bukkit.event.Event;
+
+/**
+ * Calls a {@link GameEvent} method of a listener. Invokers are created once when the listener is registered (see {@link
+ * EventInvokerFactory}), so dispatching an event doesn't need any reflection.
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+    /**
+     * Passes the event to the listener method
+     *
+     * @param event the event that was called
+     * @param user  the user that was extracted from the event, if any. Only passed to methods that take a user
+     * @throws Exception whatever the listener method throws
+     */
+    void invoke(@Nonnull Event event, @Nullable User user) throws Exception;
+}
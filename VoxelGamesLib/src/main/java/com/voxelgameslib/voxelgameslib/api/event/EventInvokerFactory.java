@@ -0,0 +1,161 @@
+package com.voxelgameslib.voxelgameslib.api.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.components.user.User;
+
+import org.bukkit.event.Event;
+
+/**
+ * Creates {@link EventInvoker}s for {@link GameEvent} methods.<br>
+ * If the listener class can be seen from our classloader, a class implementing the invoker is spun up via the {@link
+ * LambdaMetafactory}, so the listener method is called directly and can be inlined by the JIT. Listeners from addons
+ * live in another classloader, those are called via a bound {@link MethodHandle} instead. Plain reflection is only
+ * used as a last resort.
+ */
+public final class EventInvokerFactory {
+
+    private static final Logger log = Logger.getLogger(EventInvokerFactory.class.getName());
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Event.class, User.class);
+    private static final MethodType SINGLE_ARG_INVOKER_TYPE = MethodType.methodType(void.class, Event.class);
+
+    private EventInvokerFactory() {
+        // util
+    }
+
+    /**
+     * Creates a new invoker that calls the given method on the given listener
+     *
+     * @param listener the listener instance
+     * @param method   the {@link GameEvent} method, takes the event and optionally the user
+     * @return the invoker for that method
+     */
+    @Nonnull
+    public static EventInvoker create(@Nonnull Object listener, @Nonnull Method method) {
+        if (canCompile(method)) {
+            try {
+                return compile(listener, method);
+            } catch (Throwable ex) {
+                log.log(Level.FINE, "Could not compile invoker for " + method + ", falling back to method handles", ex);
+            }
+        }
+
+        try {
+            return bind(listener, method);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            log.log(Level.WARNING, "Could not create method handle for " + method + ", falling back to reflection", ex);
+            return reflect(listener, method);
+        }
+    }
+
+    @Nonnull
+    private static EventInvoker compile(@Nonnull Object listener, @Nonnull Method method) throws Throwable {
+        MethodHandle implementation = LOOKUP.unreflect(method);
+        MethodType instantiatedType = MethodType.methodType(void.class, method.getParameterTypes());
+        if (method.getParameterCount() == 2) {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "invoke",
+                    MethodType.methodType(EventInvoker.class, method.getDeclaringClass()),
+                    INVOKER_TYPE, implementation, instantiatedType);
+            return (EventInvoker) site.getTarget().invoke(listener);
+        } else {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "invoke",
+                    MethodType.methodType(SingleArgInvoker.class, method.getDeclaringClass()),
+                    SINGLE_ARG_INVOKER_TYPE, implementation, instantiatedType);
+            SingleArgInvoker invoker = (SingleArgInvoker) site.getTarget().invoke(listener);
+            return (event, user) -> invoker.invoke(event);
+        }
+    }
+
+    @Nonnull
+    private static EventInvoker bind(@Nonnull Object listener, @Nonnull Method method) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = LOOKUP.unreflect(method).bindTo(listener);
+        if (method.getParameterCount() == 1) {
+            handle = MethodHandles.dropArguments(handle, 1, User.class);
+        }
+        MethodHandle target = handle.asType(INVOKER_TYPE);
+        return (event, user) -> {
+            try {
+                target.invokeExact(event, user);
+            } catch (Exception | Error ex) {
+                throw ex;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+
+    @Nonnull
+    private static EventInvoker reflect(@Nonnull Object listener, @Nonnull Method method) {
+        boolean passUser = method.getParameterCount() == 2;
+        return (event, user) -> {
+            try {
+                if (passUser) {
+                    method.invoke(listener, event, user);
+                } else {
+                    method.invoke(listener, event);
+                }
+            } catch (InvocationTargetException ex) {
+                if (ex.getCause() instanceof Exception) {
+                    throw (Exception) ex.getCause();
+                }
+                throw ex;
+            }
+        };
+    }
+
+    /**
+     * The generated class is defined next to this class, so it can only link against classes that are public and
+     * visible from our classloader
+     */
+    private static boolean canCompile(@Nonnull Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+        if (!isAccessible(method.getDeclaringClass())) {
+            return false;
+        }
+        for (Class<?> parameter : method.getParameterTypes()) {
+            if (!isAccessible(parameter)) {
+                return false;
+            }
+        }
+        return method.getParameterCount() == 1 || User.class.isAssignableFrom(method.getParameterTypes()[1]);
+    }
+
+    /**
+     * @param clazz the class to check
+     * @return if a class spun up next to this one could link against that class
+     */
+    static boolean isAccessible(@Nonnull Class<?> clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, EventInvokerFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Target interface for listener methods that don't want the user
+     */
+    @FunctionalInterface
+    interface SingleArgInvoker {
+
+        void invoke(@Nonnull Event event) throws Exception;
+    }
+}
@@ -15,14 +15,16 @@ public class RegisteredListener {
     private Game game;
     private Class<Event> eventClass;
     private Method method;
+    private EventInvoker invoker;
     private List<EventFilter> filters;
 
-    @java.beans.ConstructorProperties({"listener", "game", "eventClass", "method", "filters"})
-    public RegisteredListener(Listener listener, Game game, Class<Event> eventClass, Method method, List<EventFilter> filters) {
+    @java.beans.ConstructorProperties({"listener", "game", "eventClass", "method", "invoker", "filters"})
+    public RegisteredListener(Listener listener, Game game, Class<Event> eventClass, Method method, EventInvoker invoker, List<EventFilter> filters) {
         this.listener = listener;
         this.game = game;
         this.eventClass = eventClass;
         this.method = method;
+        this.invoker = invoker;
         this.filters = filters;
     }
 
@@ -46,6 +48,10 @@ public class RegisteredListener {
         return this.method;
     }
 
+    public EventInvoker getInvoker() {
+        return this.invoker;
+    }
+
     public List<EventFilter> getFilters() {
         return this.filters;
     }
@@ -66,6 +72,10 @@ public class RegisteredListener {
         this.method = method;
     }
 
+    public void setInvoker(EventInvoker invoker) {
+        this.invoker = invoker;
+    }
+
     public void setFilters(List<EventFilter> filters) {
         this.filters = filters;
     }
@@ -0,0 +1,29 @@
+package com.voxelgameslib.voxelgameslib.api.event;
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.components.user.User;
+
+import org.bukkit.event.Event;
+
+/**
+ * Extracts the user an event belongs to. Used by the {@link EventHandler} to route events to the game of the user.
+ *
+ * @param <T> the type of the event
+ */
+@FunctionalInterface
+public interface UserExtractor<T extends Event> {
+
+    /**
+     * Extractor for events that don't have a user
+     */
+    UserExtractor<Event> NONE = event -> Optional.empty();
+
+    /**
+     * @param event the event to extract the user from
+     * @return the user of that event, if present
+     */
+    @Nonnull
+    Optional<User> extract(@Nonnull T event);
+}
@@ -0,0 +1,164 @@
+package com.voxelgameslib.voxelgameslib.api.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.voxelgameslib.voxelgameslib.api.event.events.player.PlayerEvent;
+import com.voxelgameslib.voxelgameslib.components.user.User;
+import com.voxelgameslib.voxelgameslib.components.user.UserHandler;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+
+/**
+ * Knows how to get the {@link User} out of an event. Extractors are resolved once per event class and cached, this is
+ * safe to be used from async events.<br>
+ * Events that don't follow the usual conventions (a getter returning a {@link User}, {@link Player} or {@link Entity})
+ * can register their own extractor via {@link #register(Class, UserExtractor)}.
+ */
+@Singleton
+public class UserExtractorRegistry {
+
+    private static final Logger log = Logger.getLogger(UserExtractorRegistry.class.getName());
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @Inject
+    private UserHandler userHandler;
+
+    private final Map<Class<? extends Event>, UserExtractor<? extends Event>> registered = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Event>, UserExtractor<Event>> extractors = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an extractor for an event class (and all of it's subclasses, unless they have their own)
+     *
+     * @param eventClass the class of the event
+     * @param extractor  the extractor for that event
+     * @param <T>        the type of the event
+     */
+    public <T extends Event> void register(@Nonnull Class<T> eventClass, @Nonnull UserExtractor<T> extractor) {
+        registered.put(eventClass, extractor);
+        extractors.keySet().removeIf(eventClass::isAssignableFrom);
+    }
+
+    /**
+     * Extracts the user out of the given event
+     *
+     * @param event the event
+     * @return the user of the event, if the event has one
+     */
+    @Nonnull
+    public Optional<User> extract(@Nonnull Event event) {
+        return extractors.computeIfAbsent(event.getClass(), this::resolve).extract(event);
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private UserExtractor<Event> resolve(@Nonnull Class<? extends Event> eventClass) {
+        // explicitly registered
+        Class<?> clazz = eventClass;
+        while (clazz != null && Event.class.isAssignableFrom(clazz)) {
+            UserExtractor<? extends Event> extractor = registered.get(clazz);
+            if (extractor != null) {
+                return (UserExtractor<Event>) extractor;
+            }
+            clazz = clazz.getSuperclass();
+        }
+
+        // the well known ones
+        if (org.bukkit.event.player.PlayerEvent.class.isAssignableFrom(eventClass)) {
+            return event -> userHandler.getUser(((org.bukkit.event.player.PlayerEvent) event).getPlayer().getUniqueId());
+        } else if (PlayerEvent.class.isAssignableFrom(eventClass)) {
+            return event -> Optional.of(((PlayerEvent) event).getUser());
+        }
+
+        // search for method to get player
+        Method userMethod = null;
+        Method playerMethod = null;
+        Method entityMethod = null;
+        for (Method m : eventClass.getMethods()) {
+            if (m.getParameterCount() != 0 || Modifier.isStatic(m.getModifiers())) {
+                continue;
+            }
+            if (m.getReturnType().equals(User.class)) {
+                userMethod = m;
+                break;
+            } else if (m.getReturnType().equals(Player.class)) {
+                if (playerMethod == null) {
+                    playerMethod = m;
+                }
+            } else if (Entity.class.isAssignableFrom(m.getReturnType())) {
+                entityMethod = m;
+            }
+        }
+
+        try {
+            if (userMethod != null) {
+                Function<Event, Object> getter = compile(userMethod);
+                return event -> Optional.ofNullable((User) getter.apply(event));
+            } else if (playerMethod != null) {
+                Function<Event, Object> getter = compile(playerMethod);
+                return event -> {
+                    Player player = (Player) getter.apply(event);
+                    return player == null ? Optional.empty() : userHandler.getUser(player.getUniqueId());
+                };
+            } else if (entityMethod != null) {
+                // entity should be fallback, if there is something better don't use it
+                Function<Event, Object> getter = compile(entityMethod);
+                return event -> {
+                    Object entity = getter.apply(event);
+                    return entity instanceof Player ? userHandler.getUser(((Player) entity).getUniqueId()) : Optional.empty();
+                };
+            }
+        } catch (Throwable ex) {
+            log.log(Level.WARNING, "Could not create user extractor for " + eventClass.getName(), ex);
+        }
+
+        log.warning("Could not find a way to get a user out of " + eventClass.getSimpleName() + "!");
+        return UserExtractor.NONE;
+    }
+
+    /**
+     * Turns a getter into a function, see {@link EventInvokerFactory} for why there are two ways
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private Function<Event, Object> compile(@Nonnull Method method) throws Throwable {
+        MethodHandle handle;
+        if (EventInvokerFactory.isAccessible(method.getDeclaringClass()) && EventInvokerFactory.isAccessible(method.getReturnType())) {
+            handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    MethodType.methodType(method.getReturnType(), method.getDeclaringClass()));
+            return (Function<Event, Object>) site.getTarget().invokeExact();
+        }
+
+        method.setAccessible(true);
+        MethodHandle target = LOOKUP.unreflect(method).asType(MethodType.methodType(Object.class, Event.class));
+        return event -> {
+            try {
+                return target.invokeExact(event);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+}
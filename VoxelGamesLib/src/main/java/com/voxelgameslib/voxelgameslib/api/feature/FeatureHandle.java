@@ -0,0 +1,84 @@
+package com.voxelgameslib.voxelgameslib.api.feature;
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.api.exception.NoSuchFeatureException;
+import com.voxelgameslib.voxelgameslib.api.phase.Phase;
+
+/**
+ * A typed reference to another {@link Feature} of the same {@link Phase}. Features that need another feature in hot
+ * code (like event handlers) should create a handle, resolve it once in {@link Feature#enable()} and use {@link #get()}
+ * afterwards, instead of looking the feature up every time.
+ *
+ * @param <T> the type of the feature
+ */
+public final class FeatureHandle<T extends Feature> {
+
+    private final Class<T> featureClass;
+    private T feature;
+
+    private FeatureHandle(@Nonnull Class<T> featureClass) {
+        this.featureClass = featureClass;
+    }
+
+    /**
+     * Creates a new, unresolved handle
+     *
+     * @param featureClass the class of the feature
+     * @param <T>          the type of the feature
+     * @return the handle
+     */
+    @Nonnull
+    public static <T extends Feature> FeatureHandle<T> of(@Nonnull Class<T> featureClass) {
+        return new FeatureHandle<>(featureClass);
+    }
+
+    /**
+     * Looks the feature up in the given phase. Should be called when the phase is enabled, after that the feature
+     * list doesn't change anymore
+     *
+     * @param phase the phase to look the feature up in
+     * @return if the phase has that feature
+     */
+    public boolean resolve(@Nonnull Phase phase) {
+        Optional<T> optional = phase.getOptionalFeature(featureClass);
+        feature = optional.orElse(null);
+        return feature != null;
+    }
+
+    /**
+     * @return the resolved feature
+     * @throws NoSuchFeatureException if the handle wasn't resolved or the phase didn't had that feature
+     */
+    @Nonnull
+    public T get() {
+        if (feature == null) {
+            throw new NoSuchFeatureException(featureClass);
+        }
+        return feature;
+    }
+
+    /**
+     * @return the resolved feature, if present
+     */
+    @Nonnull
+    public Optional<T> getOptional() {
+        return Optional.ofNullable(feature);
+    }
+
+    /**
+     * @return if the handle was resolved and the feature is present
+     */
+    public boolean isPresent() {
+        return feature != null;
+    }
+
+    /**
+     * @return the class of the feature this handle points to
+     */
+    @Nonnull
+    public Class<T> getFeatureClass() {
+        return featureClass;
+    }
+}
@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 
@@ -19,10 +18,14 @@ import com.voxelgameslib.voxelgameslib.components.map.BasicMarkerDefinition;
 import com.voxelgameslib.voxelgameslib.components.map.Map;
 import com.voxelgameslib.voxelgameslib.components.map.Marker;
 import com.voxelgameslib.voxelgameslib.components.map.MarkerDefinition;
+import com.voxelgameslib.voxelgameslib.components.map.RandomSpawnStrategy;
+import com.voxelgameslib.voxelgameslib.components.map.SpawnStrategy;
+import com.voxelgameslib.voxelgameslib.components.map.SpreadSpawnStrategy;
 import com.voxelgameslib.voxelgameslib.components.user.User;
 import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
 
 import org.bukkit.Location;
+import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerRespawnEvent;
 
 @FeatureInfo(name = "SpawnFeature", author = "MiniDigger", version = "1.0",
@@ -35,9 +38,14 @@ public class SpawnFeature extends AbstractFeature {
     private boolean isRespawn = true;
     @Expose
     private boolean isInitialSpawn = true;
+    @Expose
+    private boolean spreadSpawns = true;
+    @Expose
+    private int spawnMemory = 3;
 
     private List<Vector3D> spawns = new ArrayList<>();
     private Map map;
+    private SpawnStrategy strategy;
 
     private MarkerDefinition spawnMarker = new BasicMarkerDefinition("spawn");
 
@@ -55,9 +63,15 @@ public class SpawnFeature extends AbstractFeature {
             return;
         }
 
+        strategy = spreadSpawns ? new SpreadSpawnStrategy(spawnMemory) : new RandomSpawnStrategy();
+
         if (isInitialSpawn) {
+            // teleports are async, so spread the players based on the spawns we already handed out
+            List<Vector3D> taken = new ArrayList<>();
             for (User user : getPhase().getGame().getPlayers()) {
-                user.getPlayer().teleportAsync(getSpawn(user.getPlayer().getUniqueId()));
+                Vector3D spawn = strategy.select(spawns, taken);
+                taken.add(spawn);
+                user.getPlayer().teleportAsync(toLocation(spawn));
             }
         }
     }
@@ -74,9 +88,24 @@ public class SpawnFeature extends AbstractFeature {
      */
     @Nonnull
     public Location getSpawn(@Nonnull UUID id) {
-        //TODO super fancy spawn algorithm
-        return spawns.get(ThreadLocalRandom.current().nextInt(spawns.size()))
-                .toLocation(map.getLoadedName(getPhase().getGame().getUuid())).add(0.5, 0, 0.5);
+        String worldName = map.getLoadedName(getPhase().getGame().getUuid());
+        List<Vector3D> players = new ArrayList<>();
+        for (User user : getPhase().getGame().getPlayers()) {
+            Player player = user.getPlayer();
+            if (user.getUuid().equals(id) || player == null || player.isDead()
+                    || !player.getWorld().getName().equals(worldName)) {
+                continue;
+            }
+            Location location = player.getLocation();
+            players.add(new Vector3D(location.getX(), location.getY(), location.getZ()));
+        }
+
+        return toLocation(strategy.select(spawns, players));
+    }
+
+    @Nonnull
+    private Location toLocation(@Nonnull Vector3D spawn) {
+        return spawn.toLocation(map.getLoadedName(getPhase().getGame().getUuid())).add(0.5, 0, 0.5);
     }
 
     @SuppressWarnings("JavaDoc")
@@ -131,4 +160,32 @@ public class SpawnFeature extends AbstractFeature {
     public void setInitialSpawn(boolean initialSpawn) {
         isInitialSpawn = initialSpawn;
     }
+
+    /**
+     * @return if true, players spawn as far away from other players as possible, else at a random spawn
+     */
+    public boolean isSpreadSpawns() {
+        return spreadSpawns;
+    }
+
+    /**
+     * @param spreadSpawns if true, players spawn as far away from other players as possible, else at a random spawn
+     */
+    public void setSpreadSpawns(boolean spreadSpawns) {
+        this.spreadSpawns = spreadSpawns;
+    }
+
+    /**
+     * @return how many of the last used spawns are skipped when spreading spawns
+     */
+    public int getSpawnMemory() {
+        return spawnMemory;
+    }
+
+    /**
+     * @param spawnMemory how many of the last used spawns are skipped when spreading spawns
+     */
+    public void setSpawnMemory(int spawnMemory) {
+        this.spawnMemory = spawnMemory;
+    }
 }
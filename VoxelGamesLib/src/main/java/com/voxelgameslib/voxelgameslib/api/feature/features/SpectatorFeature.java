@@ -1,11 +1,11 @@
 package com.voxelgameslib.voxelgameslib.api.feature.features;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 import com.voxelgameslib.voxelgameslib.api.event.GameEvent;
@@ -17,6 +17,8 @@ import com.voxelgameslib.voxelgameslib.components.map.BasicMarkerDefinition;
 import com.voxelgameslib.voxelgameslib.components.map.Map;
 import com.voxelgameslib.voxelgameslib.components.map.Marker;
 import com.voxelgameslib.voxelgameslib.components.map.MarkerDefinition;
+import com.voxelgameslib.voxelgameslib.components.map.MarkerIndex;
+import com.voxelgameslib.voxelgameslib.components.user.User;
 import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
 
 import org.bukkit.GameMode;
@@ -28,7 +30,7 @@ public class SpectatorFeature extends AbstractFeature {
     private static final Logger log = Logger.getLogger(SpectatorFeature.class.getName());
 
     private MarkerDefinition spawnMarker = new BasicMarkerDefinition("spec");
-    private List<Vector3D> spawns = new ArrayList<>();
+    private MarkerIndex spawns;
     private Map map;
 
     @GameEvent(filterPlayers = false, filterSpectators = true)
@@ -37,10 +39,9 @@ public class SpectatorFeature extends AbstractFeature {
 
         // spawn
         Optional<SpawnFeature> spawnFeature = getPhase().getOptionalFeature(SpawnFeature.class);
-        if (spawns.size() > 0) {
-            Location location = spawns.get(ThreadLocalRandom.current().nextInt(spawns.size()))
-                    .toLocation(map.getLoadedName(getPhase().getGame().getUuid())).add(0.5, 0, 0.5);
-            event.getUser().getPlayer().teleportAsync(location);
+        if (!spawns.isEmpty()) {
+            event.getUser().getPlayer().teleportAsync(getSpectatorSpawn(event.getGame().getPlayers())
+                    .toLocation(map.getLoadedName(getPhase().getGame().getUuid())).add(0.5, 0, 0.5));
         } else if (spawnFeature.isPresent()) {
             event.getUser().getPlayer().teleportAsync(spawnFeature.get().getSpawn(event.getUser().getUuid()));
         } else if (event.getGame().getPlayers().size() > 0) {
@@ -53,9 +54,27 @@ public class SpectatorFeature extends AbstractFeature {
     @Override
     public void enable() {
         map = getPhase().getFeature(MapFeature.class).getMap();
-        for (Marker marker : map.getMarkers(spawnMarker)) {
-            spawns.add(marker.getLoc());
+        spawns = map.getMarkerIndex(spawnMarker);
+    }
+
+    /**
+     * Selects the spectator spawn that is closest to a random living player, so spectators start near the action
+     *
+     * @param players the players of the game
+     * @return the spawn
+     */
+    @Nonnull
+    private Vector3D getSpectatorSpawn(@Nonnull List<User> players) {
+        List<User> alive = players.stream().filter(user -> user.getPlayer() != null && !user.getPlayer().isDead())
+                .collect(Collectors.toList());
+        if (!alive.isEmpty()) {
+            Location location = alive.get(ThreadLocalRandom.current().nextInt(alive.size())).getPlayer().getLocation();
+            Marker nearest = spawns.getNearest(new Vector3D(location.getX(), location.getY(), location.getZ()));
+            if (nearest != null) {
+                return nearest.getLoc();
+            }
         }
+        return spawns.getLocations().get(ThreadLocalRandom.current().nextInt(spawns.size()));
     }
 
     @Nonnull
@@ -7,6 +7,7 @@ import javax.annotation.Nonnull;
 import com.voxelgameslib.voxelgameslib.api.event.GameEvent;
 import com.voxelgameslib.voxelgameslib.api.feature.AbstractFeature;
 import com.voxelgameslib.voxelgameslib.api.feature.Feature;
+import com.voxelgameslib.voxelgameslib.api.feature.FeatureHandle;
 import com.voxelgameslib.voxelgameslib.api.feature.FeatureInfo;
 
 import org.bukkit.entity.EntityType;
@@ -18,6 +19,13 @@ import org.bukkit.event.player.PlayerMoveEvent;
         description = "Teleports player to spawn if they fall into the void")
 public class VoidTeleportFeature extends AbstractFeature {
 
+    private final FeatureHandle<SpawnFeature> spawnFeature = FeatureHandle.of(SpawnFeature.class);
+
+    @Override
+    public void enable() {
+        spawnFeature.resolve(getPhase());
+    }
+
     @Override
     @Nonnull
     public List<Class<? extends Feature>> getDependencies() {
@@ -32,7 +40,7 @@ public class VoidTeleportFeature extends AbstractFeature {
         if (event.getCause().equals(EntityDamageEvent.DamageCause.VOID)) {
             Player player = (Player) event.getEntity();
 
-            player.teleportAsync(getPhase().getFeature(SpawnFeature.class).getSpawn(player.getUniqueId()));
+            player.teleportAsync(spawnFeature.get().getSpawn(player.getUniqueId()));
 
             event.setCancelled(true);
         }
@@ -42,7 +50,7 @@ public class VoidTeleportFeature extends AbstractFeature {
     public void onFellOutOfWorld(@Nonnull PlayerMoveEvent event) {
         // just in case damage is disabled
         if (event.getTo().getY() < 0) {
-            event.getPlayer().teleportAsync(getPhase().getFeature(SpawnFeature.class).getSpawn(event.getPlayer().getUniqueId()));
+            event.getPlayer().teleportAsync(spawnFeature.get().getSpawn(event.getPlayer().getUniqueId()));
         }
     }
 }
@@ -12,7 +12,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -32,6 +34,7 @@ import com.voxelgameslib.voxelgameslib.api.phase.Phase;
 import com.voxelgameslib.voxelgameslib.api.tick.TickHandler;
 import com.voxelgameslib.voxelgameslib.components.chat.ChatChannel;
 import com.voxelgameslib.voxelgameslib.components.chat.ChatHandler;
+import com.voxelgameslib.voxelgameslib.components.chat.PreparedMessage;
 import com.voxelgameslib.voxelgameslib.components.elo.EloHandler;
 import com.voxelgameslib.voxelgameslib.components.map.MapInfo;
 import com.voxelgameslib.voxelgameslib.components.team.Team;
@@ -79,6 +82,9 @@ public abstract class AbstractGame implements Game {
     private final List<User> players = new ArrayList<>();
     private final List<User> spectators = new ArrayList<>();
     private final List<User> allUsers = new ArrayList<>();
+    // the same users again, but hashed, for fast membership checks
+    private final Set<UUID> playerIds = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> spectatorIds = ConcurrentHashMap.newKeySet();
 
     private Map<Class<GameData>, GameData> gameData = new HashMap<>();
 
@@ -118,12 +124,13 @@ public abstract class AbstractGame implements Game {
 
     @Override
     public void broadcastMessage(@Nonnull Component message) {
-        allUsers.forEach(u -> u.sendMessage(message));
+        PreparedMessage prepared = PreparedMessage.of(message);
+        allUsers.forEach(u -> u.sendMessage(prepared));
     }
 
     @Override
     public void broadcastMessage(@Nonnull Translatable key, @Nullable Object... args) {
-        allUsers.forEach(user -> Lang.msg(user, key, args));
+        Lang.msg(allUsers, key, args);
     }
 
     @Override
@@ -243,7 +250,7 @@ public abstract class AbstractGame implements Game {
         }
 
         log.finer("Persisting game data");
-        persistenceHandler.getProvider().saveGame(getGameData(winnerUser, winnerTeam));
+        persistenceHandler.saveGame(getGameData(winnerUser, winnerTeam));
 
         end(gameHandler.getDefaultGame() == null);
     }
@@ -350,14 +357,12 @@ public abstract class AbstractGame implements Game {
         }
 
         if (!isPlaying(user.getUuid())) {
-            players.add(user);
-            allUsers.add(user);
+            addUser(user, false);
             playerStates.put(user.getUuid(), PlayerState.of(user));
             GameJoinEvent event = new GameJoinEvent(this, user);
             Bukkit.getPluginManager().callEvent(event);
             if (event.isCancelled()) {
-                players.remove(user);
-                allUsers.remove(user);
+                removeUser(user);
                 return false;
             }
             broadcastMessage(LangKey.GAME_PLAYER_JOIN, (Object) user.getDisplayName());
@@ -377,16 +382,14 @@ public abstract class AbstractGame implements Game {
             return false;
         }
 
-        if (!isPlaying(user.getUuid()) && !isSpectating(user.getUuid())) {
-            spectators.add(user);
-            allUsers.add(user);
+        if (!isParticipating(user.getUuid())) {
+            addUser(user, true);
             playerStates.put(user.getUuid(), PlayerState.of(user));
 
             GameJoinEvent event = new GameJoinEvent(this, user);
             Bukkit.getPluginManager().callEvent(event);
             if (event.isCancelled()) {
-                players.remove(user);
-                allUsers.remove(user);
+                removeUser(user);
                 return false;
             }
 
@@ -403,9 +406,7 @@ public abstract class AbstractGame implements Game {
     public void leave(@Nonnull User user, boolean shouldTeleportToSpawn) {
         Bukkit.getPluginManager().callEvent(new GamePreLeaveEvent(this, user));
 
-        players.remove(user);
-        spectators.remove(user);
-        allUsers.remove(user);
+        removeUser(user);
         Optional.ofNullable(playerStates.remove(user.getUuid())).ifPresent(state -> state.apply(user));
         broadcastMessage(LangKey.GAME_PLAYER_LEAVE, (Object) user.getDisplayName());
 
@@ -425,19 +426,51 @@ public abstract class AbstractGame implements Game {
         }
     }
 
+    /**
+     * Adds the user to this game and to the user index of the {@link GameHandler}
+     *
+     * @param user      the user to add
+     * @param spectator if the user should spectate
+     */
+    void addUser(@Nonnull User user, boolean spectator) {
+        if (spectator) {
+            spectators.add(user);
+            spectatorIds.add(user.getUuid());
+        } else {
+            players.add(user);
+            playerIds.add(user.getUuid());
+        }
+        allUsers.add(user);
+        gameHandler.addToIndex(user.getUuid(), this);
+    }
+
+    /**
+     * Removes the user from this game and from the user index of the {@link GameHandler}
+     *
+     * @param user the user to remove
+     */
+    void removeUser(@Nonnull User user) {
+        players.remove(user);
+        spectators.remove(user);
+        allUsers.remove(user);
+        playerIds.remove(user.getUuid());
+        spectatorIds.remove(user.getUuid());
+        gameHandler.removeFromIndex(user.getUuid(), this);
+    }
+
     @Override
     public boolean isPlaying(@Nonnull UUID user) {
-        return players.stream().anyMatch(u -> u.getUuid().equals(user));
+        return playerIds.contains(user);
     }
 
     @Override
     public boolean isSpectating(@Nonnull UUID user) {
-        return spectators.stream().anyMatch(u -> u.getUuid().equals(user));
+        return spectatorIds.contains(user);
     }
 
     @Override
     public boolean isParticipating(@Nonnull UUID user) {
-        return allUsers.stream().anyMatch(u -> u.getUuid().equals(user));
+        return playerIds.contains(user) || spectatorIds.contains(user);
     }
 
     @Override
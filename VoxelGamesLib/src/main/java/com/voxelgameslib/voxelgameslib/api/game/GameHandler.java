@@ -11,8 +11,11 @@ import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -59,6 +62,8 @@ public class GameHandler implements Handler {
     private final List<Game> games = new ArrayList<>();
     private final List<GameMode> modes = new ArrayList<>();
     private final List<GameDefinition> gameDefinitions = new ArrayList<>();
+    // the games every user is participating in
+    private final Map<UUID, Set<Game>> userIndex = new ConcurrentHashMap<>();
 
     @Override
     public void enable() {
@@ -209,8 +214,13 @@ public class GameHandler implements Handler {
      */
     @Nonnull
     public List<Game> getGames(@Nonnull UUID id, boolean spectate) {
-        List<Game> result = new ArrayList<>();
-        for (Game game : games) {
+        Set<Game> indexed = userIndex.get(id);
+        if (indexed == null) {
+            return new ArrayList<>();
+        }
+
+        List<Game> result = new ArrayList<>(indexed.size());
+        for (Game game : indexed) {
             if (game.isPlaying(id)) {
                 result.add(game);
                 continue;
@@ -251,6 +261,31 @@ public class GameHandler implements Handler {
      */
     public void removeGame(@Nonnull Game game) {
         games.remove(game);
+        userIndex.values().forEach(indexed -> indexed.remove(game));
+        userIndex.values().removeIf(Set::isEmpty);
+    }
+
+    /**
+     * Remembers that the user is participating in that game, called by the game when a user joins
+     *
+     * @param id   the id of the user
+     * @param game the game the user joined
+     */
+    void addToIndex(@Nonnull UUID id, @Nonnull Game game) {
+        userIndex.computeIfAbsent(id, (key) -> ConcurrentHashMap.newKeySet()).add(game);
+    }
+
+    /**
+     * Forgets that the user is participating in that game, called by the game when a user leaves
+     *
+     * @param id   the id of the user
+     * @param game the game the user left
+     */
+    void removeFromIndex(@Nonnull UUID id, @Nonnull Game game) {
+        userIndex.computeIfPresent(id, (key, indexed) -> {
+            indexed.remove(game);
+            return indexed.isEmpty() ? null : indexed;
+        });
     }
 
     /**
@@ -262,7 +297,7 @@ public class GameHandler implements Handler {
      */
     @Nonnull
     public Optional<Game> findGame(@Nonnull User user, @Nonnull GameMode gameMode) {
-        //TODO replace with a real matchmaking algorithm
+        // skill based matchmaking for new games is done by the MatchmakingHandler, this just picks a running game
         List<Game> matched = games.stream().filter(g -> g.getGameMode().equals(gameMode))
                 .collect(Collectors.toList());
         if (matched.size() == 0) {
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,6 +36,7 @@ import com.voxelgameslib.voxelgameslib.command.CommandHandler;
 import com.voxelgameslib.voxelgameslib.components.ability.Ability;
 import com.voxelgameslib.voxelgameslib.components.team.Team;
 import com.voxelgameslib.voxelgameslib.components.user.User;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.graph.Graph;
 
 import org.bukkit.event.Listener;
@@ -59,6 +61,8 @@ public abstract class AbstractPhase implements Phase {
     private CommandHandler commandHandler;
     @Inject
     private TimingManager timingManager;
+    @Inject
+    private GlobalConfig config;
 
     @Expose
     private String name;
@@ -84,6 +88,11 @@ public abstract class AbstractPhase implements Phase {
     private boolean isRunning;
     private List<Feature> startedFeatures = new ArrayList<>();
 
+    // features by class, rebuilt when the feature list changes
+    private Map<Class<?>, Feature> featureIndex = new IdentityHashMap<>();
+    private List<Feature> indexedFeatures;
+    private int indexedFeaturesSize;
+
     private LocalDateTime startTime;
     private Duration duration;
 
@@ -91,6 +100,8 @@ public abstract class AbstractPhase implements Phase {
 
     private Map<UUID, Tickable> phaseTickables = new HashMap<>();
 
+    private int ticksSinceEndCheck;
+
     public AbstractPhase() {
         className = getClass().getName().replace(PhaseTypeAdapter.DEFAULT_PATH + ".", "");
     }
@@ -123,6 +134,7 @@ public abstract class AbstractPhase implements Phase {
         }
         log.finer("add " + feature.getClass().getSimpleName() + " feature");
         features.add(feature);
+        rebuildFeatureIndex();
     }
 
     @Nonnull
@@ -135,15 +147,40 @@ public abstract class AbstractPhase implements Phase {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Feature> T getFeature(@Nonnull Class<T> clazz) {
-        return (T) features.stream().filter(f -> f.getClass().equals(clazz)).findFirst()
-                .orElseThrow(() -> new NoSuchFeatureException(clazz));
+        Feature feature = getFeatureIndex().get(clazz);
+        if (feature == null) {
+            throw new NoSuchFeatureException(clazz);
+        }
+        return (T) feature;
     }
 
     @Nonnull
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Feature> Optional<T> getOptionalFeature(@Nonnull Class<T> clazz) {
-        return (Optional<T>) features.stream().filter(f -> f.getClass().equals(clazz)).findFirst();
+        return Optional.ofNullable((T) getFeatureIndex().get(clazz));
+    }
+
+    /**
+     * The feature list can be replaced (deserialization, dependency sorting) or modified via {@link #getFeatures()}, so
+     * we make sure the index still belongs to the current list before using it
+     */
+    @Nonnull
+    private Map<Class<?>, Feature> getFeatureIndex() {
+        if (indexedFeatures != features || indexedFeaturesSize != features.size()) {
+            rebuildFeatureIndex();
+        }
+        return featureIndex;
+    }
+
+    private void rebuildFeatureIndex() {
+        Map<Class<?>, Feature> index = new IdentityHashMap<>();
+        for (Feature feature : features) {
+            index.putIfAbsent(feature.getClass(), feature);
+        }
+        featureIndex = index;
+        indexedFeatures = features;
+        indexedFeaturesSize = features.size();
     }
 
     @Nonnull
@@ -271,7 +308,7 @@ public abstract class AbstractPhase implements Phase {
 
         for (VictoryCondition victoryCondition : victoryConditions) {
             if (victoryCondition instanceof Listener) {
-                eventHandler.registerEvents((Listener) victoryCondition, getGame());
+                eventHandler.unregister((Listener) victoryCondition, getGame());
             }
         }
 
@@ -311,7 +348,19 @@ public abstract class AbstractPhase implements Phase {
         }
         phaseTiming.stopTiming();
 
-        checkEnd();
+        if (++ticksSinceEndCheck >= config.tick.victoryConditionPollInterval || isVictoryConditionDirty()) {
+            ticksSinceEndCheck = 0;
+            checkEnd();
+        }
+    }
+
+    private boolean isVictoryConditionDirty() {
+        for (VictoryCondition victoryCondition : victoryConditions) {
+            if (victoryCondition.isDirty()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -422,6 +471,7 @@ public abstract class AbstractPhase implements Phase {
         // remap classes to features
         features = orderedFeatures.stream().map((Function<Class, Feature>) this::getFeature)
                 .collect(Collectors.toList());
+        rebuildFeatureIndex();
 
         return true;
     }
@@ -449,6 +499,8 @@ public abstract class AbstractPhase implements Phase {
     }
 
     private void checkEnd() {
+        victoryConditions.forEach(VictoryCondition::clearDirty);
+
         // check all victory conditions
         User winner = null;
         Team winnerTeam = null;
@@ -0,0 +1,150 @@
+package com.voxelgameslib.voxelgameslib.api.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.internal.math.OrderStatisticTree;
+import com.voxelgameslib.voxelgameslib.util.Pair;
+
+/**
+ * The ranking of all known users for one stat type. It is seeded from the persistence provider once and then kept up to
+ * date by every change of a stat, so top lists and ranks never need to query the database. All operations take
+ * O(log n).<br>
+ * If the seed was cut off, users below the lowest seeded value are still tracked (because they are online), but there
+ * may be unknown users above them, so they have no rank and are left out of top lists.
+ */
+public class Leaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble((Entry e) -> e.val).reversed()
+            .thenComparing(e -> e.id);
+
+    private final Trackable type;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final OrderStatisticTree<Entry> tree = new OrderStatisticTree<>(ORDER);
+    private volatile boolean seeded;
+    /**
+     * the lowest seeded value if the seed was cut off, see {@link #seed(List, int)}
+     */
+    private double floor = Double.NEGATIVE_INFINITY;
+
+    public Leaderboard(@Nonnull Trackable type) {
+        this.type = type;
+    }
+
+    /**
+     * Sets the value of a user
+     *
+     * @param id  the user
+     * @param val the new value
+     */
+    public synchronized void update(@Nonnull UUID id, double val) {
+        Entry old = entries.get(id);
+        if (old != null) {
+            if (old.val == val) {
+                return;
+            }
+            tree.remove(old);
+        }
+
+        Entry entry = new Entry(id, val);
+        entries.put(id, entry);
+        tree.add(entry);
+    }
+
+    /**
+     * Adds the values that were loaded from the persistence provider. Users that are known already are skipped, their
+     * value is newer than the loaded one.
+     *
+     * @param values the loaded values
+     * @param limit  the number of values that were requested, if it was reached there might be more users
+     */
+    public synchronized void seed(@Nonnull List<Pair<UUID, Double>> values, int limit) {
+        if (!values.isEmpty() && values.size() >= limit) {
+            floor = values.stream().mapToDouble(Pair::getSecond).min().getAsDouble();
+        }
+        for (Pair<UUID, Double> value : values) {
+            if (!entries.containsKey(value.getFirst())) {
+                Entry entry = new Entry(value.getFirst(), value.getSecond());
+                entries.put(value.getFirst(), entry);
+                tree.add(entry);
+            }
+        }
+        seeded = true;
+    }
+
+    /**
+     * @param amount the number of users
+     * @return the best users with their values, best first
+     */
+    @Nonnull
+    public synchronized List<Pair<UUID, Double>> getTop(int amount) {
+        List<Pair<UUID, Double>> result = new ArrayList<>();
+        for (Entry entry : tree.first(amount)) {
+            if (entry.val < floor) {
+                break;
+            }
+            result.add(new Pair<>(entry.id, entry.val));
+        }
+        return result;
+    }
+
+    /**
+     * @param id the user
+     * @return the rank of the user, starting at 1, or empty if the user has no value or is below the seeded users
+     */
+    @Nonnull
+    public synchronized OptionalInt getRank(@Nonnull UUID id) {
+        Entry entry = entries.get(id);
+        if (entry == null || entry.val < floor) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(tree.rank(entry) + 1);
+    }
+
+    /**
+     * @param id the user
+     * @return the value of the user, if known
+     */
+    @Nonnull
+    public synchronized OptionalDouble getValue(@Nonnull UUID id) {
+        Entry entry = entries.get(id);
+        return entry == null ? OptionalDouble.empty() : OptionalDouble.of(entry.val);
+    }
+
+    /**
+     * @return the number of users on this leaderboard
+     */
+    public synchronized int size() {
+        return tree.size();
+    }
+
+    /**
+     * @return true once the values were loaded from the persistence provider
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    @Nonnull
+    public Trackable getType() {
+        return type;
+    }
+
+    private static final class Entry {
+
+        private final UUID id;
+        private final double val;
+
+        private Entry(@Nonnull UUID id, double val) {
+            this.id = id;
+            this.val = val;
+        }
+    }
+}
@@ -22,11 +22,26 @@ public class StatInstance {
     @Transient
     private User user;
     @Transient
-    private boolean dirty = false;
+    private volatile boolean dirty = false;
+    /**
+     * the stat this one was copied from, see {@link #snapshot()}
+     */
+    @Transient
+    private StatInstance source;
+    /**
+     * set by providers that don't generate ids, see {@link #markPersisted()}
+     */
+    @Transient
+    private volatile boolean persisted = false;
+    /**
+     * the id before this copy was written, see {@link #resetId()}
+     */
+    @Transient
+    private long previousId;
 
     @Id
     @GeneratedValue
-    private long id;
+    private volatile long id;
     @Type(type = "uuid-char")
     private UUID uuid;
     private double val;
@@ -43,6 +58,12 @@ public class StatInstance {
         this.val = val;
     }
 
+    public StatInstance(UUID uuid, Trackable statType, double val) {
+        this.uuid = uuid;
+        this.statType = statType;
+        this.val = val;
+    }
+
     public void increment() {
         increment(1);
     }
@@ -52,6 +73,7 @@ public class StatInstance {
         if (event.callEvent()) {
             this.val = event.getNewVal();
             dirty = true;
+            StatsHandler.onStatChange(this);
         }
     }
 
@@ -64,6 +86,7 @@ public class StatInstance {
         if (event.callEvent()) {
             this.val = event.getNewVal();
             dirty = true;
+            StatsHandler.onStatChange(this);
         }
     }
 
@@ -74,12 +97,113 @@ public class StatInstance {
     public void setVal(double amount) {
         this.val = amount;
         dirty = true;
+        StatsHandler.onStatChange(this);
     }
 
     public boolean isDirty() {
         return dirty;
     }
 
+    /**
+     * Called when the current value was handed to the persistence provider. Changes after this mark the stat dirty
+     * again.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+
+    /**
+     * Called when writing the stat failed, so that the next flush tries again
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * @return true if the stat was never persisted, it then has no row that could be updated
+     */
+    public boolean isNew() {
+        return id == 0 && !persisted;
+    }
+
+    /**
+     * Called by persistence providers that don't generate an id, when the stat was loaded or written
+     */
+    public void markPersisted() {
+        persisted = true;
+    }
+
+    /**
+     * Creates a copy of the current value that can be written on another thread. The copy remembers this stat, so the
+     * id that is generated when the copy is written can be handed back.
+     *
+     * @return the copy
+     */
+    public StatInstance snapshot() {
+        StatInstance copy = new StatInstance(uuid, statType, val);
+        copy.user = user;
+        copy.id = id;
+        copy.persisted = persisted;
+        copy.source = this;
+        return copy;
+    }
+
+    /**
+     * Takes over the id of the stat this was copied from, if an earlier copy of it was written in the meantime.
+     * Needs to be called on the thread that writes the copies.
+     */
+    public void refreshId() {
+        if (id == 0 && source != null) {
+            source.refreshId();
+            id = source.id;
+        }
+        previousId = id;
+    }
+
+    /**
+     * Called when writing this copy failed. The provider may have assigned an id that was rolled back, so the copy goes
+     * back to the id it had in {@link #refreshId()}, otherwise the next try would update a row that doesn't exist.
+     */
+    public void resetId() {
+        id = previousId;
+    }
+
+    /**
+     * Called after this copy was written, hands the generated id back to the stat it was copied from
+     */
+    public void onPersisted() {
+        if (source == null) {
+            return;
+        }
+        if (source.id == 0) {
+            source.id = id;
+        }
+        if (persisted) {
+            source.persisted = true;
+        }
+    }
+
+    /**
+     * Called when writing this copy failed, marks the stat it was copied from dirty again
+     */
+    public void onFailed() {
+        if (source != null) {
+            source.markDirty();
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public Trackable getStatType() {
+        return statType;
+    }
+
     public User getUser() {
         if (user == null) {
             user = statType.getUser(uuid);
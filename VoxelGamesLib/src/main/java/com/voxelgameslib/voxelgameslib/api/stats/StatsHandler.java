@@ -1,29 +1,32 @@
 package com.voxelgameslib.voxelgameslib.api.stats;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.inject.Injector;
 import com.google.inject.name.Named;
 
 import com.bugsnag.Severity;
 
 import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.voxelgameslib.voxelgameslib.VoxelGamesLib;
+import com.voxelgameslib.voxelgameslib.components.user.User;
 import com.voxelgameslib.voxelgameslib.components.user.UserHandler;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.error.ErrorHandler;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
 import com.voxelgameslib.voxelgameslib.internal.persistence.PersistenceHandler;
@@ -53,9 +56,14 @@ public class StatsHandler implements Handler {
     private ScanResult scanner;
     @Inject
     private ErrorHandler errorHandler;
+    @Inject
+    private GlobalConfig config;
 
     private List<Stat> statTypes = new ArrayList<>();
     private static List<Trackable> trackables = new ArrayList<>();
+    private static final Map<Trackable, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+    private final Map<Trackable, CompletableFuture<Leaderboard>> seeding = new ConcurrentHashMap<>();
+    private final Map<UUID, Component> names = new ConcurrentHashMap<>();
 
     @Override
     public void enable() {
@@ -70,17 +78,58 @@ public class StatsHandler implements Handler {
         }
         log.info("Registered " + statTypes.size() + " StatsTypes");
 
-        Bukkit.getScheduler().runTaskTimer(vgl, () -> userHandler.getUsers().forEach(user -> {
-            if (user.getUserData().getStats().values().stream().anyMatch(StatInstance::isDirty)) {
-                log.finer("Persisting stats for " + user.getRawDisplayName());
-                persistenceHandler.getProvider().saveUser(user.getUserData());
+        Bukkit.getScheduler().runTaskTimer(vgl, this::flushDirtyStats, 60 * 20, 60 * 20);
+    }
+
+    /**
+     * Hands the dirty stats of all online users to the persistence handler, at most statFlushLimit per run. The rest
+     * stays dirty and is picked up by the next run.
+     */
+    private void flushDirtyStats() {
+        int limit = Math.max(1, config.persistence.statFlushLimit);
+        int count = 0;
+        List<StatInstance> batch = new ArrayList<>();
+        for (User user : userHandler.getUsers()) {
+            if (count >= limit) {
+                break;
+            }
+
+            List<StatInstance> dirty = user.getUserData().getStats().values().stream()
+                    .filter(StatInstance::isDirty).collect(Collectors.toList());
+            if (dirty.isEmpty()) {
+                continue;
+            }
+
+            if (dirty.stream().anyMatch(StatInstance::isNew)) {
+                // new stats have no row yet, they need to be linked to the user, so save the user once. If that
+                // write fails the stats are marked dirty again (or the write behind queue retries it)
+                log.finer("Persisting user " + user.getRawDisplayName() + " for new stats");
+                dirty.forEach(StatInstance::markClean);
+                persistenceHandler.saveUser(user.getUserData());
+                count += dirty.size();
+                continue;
+            }
+
+            for (StatInstance stat : dirty) {
+                if (count++ >= limit) {
+                    break;
+                }
+                stat.markClean();
+                batch.add(stat);
             }
-        }), 60 * 20, 60 * 20);
+        }
+
+        if (!batch.isEmpty()) {
+            log.finer("Persisting " + batch.size() + " stats");
+            persistenceHandler.saveStats(batch);
+        }
     }
 
     @Override
     public void disable() {
-
+        leaderboards.clear();
+        seeding.clear();
+        names.clear();
     }
 
     private void registerStatType(Class<? extends Stat> clazz) {
@@ -111,43 +160,162 @@ public class StatsHandler implements Handler {
                 .findAny();
     }
 
-    private LoadingCache<Pair<Trackable, Integer>, List<Pair<UUID, Double>>> uuidCache = CacheBuilder.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .build(new CacheLoader<Pair<Trackable, Integer>, List<Pair<UUID, Double>>>() {
-                @Override
-                public List<Pair<UUID, Double>> load(Pair<Trackable, Integer> key) throws Exception {
-                    return persistenceHandler.getProvider().getTopWithUUID(key.getFirst(), key.getSecond());
-                }
-            });
+    /**
+     * Gets the leaderboard for a stat type. The first call seeds it from the persistence provider in the background,
+     * after that it is kept up to date by every stat change.
+     *
+     * @param type the stat type
+     * @return a future with the leaderboard, completes once it is seeded
+     */
+    @Nonnull
+    public CompletableFuture<Leaderboard> getLeaderboard(@Nonnull Trackable type) {
+        CompletableFuture<Leaderboard> future = seeding.get(type);
+        if (future != null) {
+            return future;
+        }
+
+        Leaderboard board = new Leaderboard(type);
+        CompletableFuture<Leaderboard> created = new CompletableFuture<>();
+        future = seeding.putIfAbsent(type, created);
+        if (future != null) {
+            return future;
+        }
 
-    public List<Pair<UUID, Double>> getTopWithUUID(Trackable type, int amount) {
-        try {
-            return uuidCache.get(new Pair<>(type, amount));
-        } catch (ExecutionException e) {
-            errorHandler.handle(e, Severity.WARNING, true);
+        leaderboards.put(type, board);
+        // users may only be read on the main thread, this might be the packet thread
+        if (Bukkit.isPrimaryThread()) {
+            userHandler.getUsers().forEach(this::trackUser);
+        } else {
+            Bukkit.getScheduler().runTask(vgl, () -> userHandler.getUsers().forEach(this::trackUser));
         }
+        persistenceHandler.getAsyncProvider().getTopWithUUID(type, config.leaderboardSeedSize).whenComplete((values, ex) -> {
+            if (ex != null) {
+                // try again next time
+                leaderboards.remove(type);
+                seeding.remove(type);
+                errorHandler.handle(new RuntimeException("Could not seed leaderboard for " + type, ex), Severity.WARNING, true);
+                created.completeExceptionally(ex);
+                return;
+            }
+            board.seed(values, config.leaderboardSeedSize);
+            log.finer("Seeded leaderboard for " + type + " with " + board.size() + " users");
+            created.complete(board);
+        });
+        return created;
+    }
 
-        return new ArrayList<>();
+    /**
+     * Adds the stats of a user to all leaderboards, called when the user joins
+     *
+     * @param user the user
+     */
+    public void trackUser(@Nonnull User user) {
+        names.put(user.getUuid(), user.getDisplayName());
+        user.getUserData().getStats().forEach((type, stat) -> {
+            Leaderboard board = leaderboards.get(type);
+            if (board != null) {
+                board.update(user.getUuid(), stat.getVal());
+            }
+        });
     }
 
-    private LoadingCache<Pair<Trackable, Integer>, List<Pair<Component, Double>>> nameCache = CacheBuilder.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .build(new CacheLoader<Pair<Trackable, Integer>, List<Pair<Component, Double>>>() {
-                @Override
-                public List<Pair<Component, Double>> load(Pair<Trackable, Integer> key) throws Exception {
-                    return persistenceHandler.getProvider().getTopWithName(key.getFirst(), key.getSecond());
-                }
+    /**
+     * Called by every stat when its value changes
+     *
+     * @param stat the stat that changed
+     */
+    static void onStatChange(@Nonnull StatInstance stat) {
+        Leaderboard board = leaderboards.get(stat.getStatType());
+        if (board != null) {
+            board.update(stat.getUuid(), stat.getVal());
+        }
+    }
+
+    /**
+     * Gets the top users for a stat type
+     *
+     * @param type   the type to get the top users for
+     * @param amount the number of users to fetch
+     * @return a future with the top list, completes right away if the leaderboard is seeded
+     */
+    @Nonnull
+    public CompletableFuture<List<Pair<UUID, Double>>> getTopWithUUID(@Nonnull Trackable type, int amount) {
+        return getLeaderboard(type).thenApply(board -> board.getTop(amount));
+    }
+
+    /**
+     * Non blocking version of {@link #getTopWithUUID(Trackable, int)} for the main and the packet thread
+     *
+     * @param type   the type to get the top users for
+     * @param amount the number of users to fetch
+     * @return the top list if the leaderboard is seeded, empty if it is still loading
+     */
+    @Nonnull
+    public Optional<List<Pair<UUID, Double>>> peekTopWithUUID(@Nonnull Trackable type, int amount) {
+        return Optional.ofNullable(getTopWithUUID(type, amount).getNow(null));
+    }
+
+    /**
+     * Gets the top users for a stat type, with their display names
+     *
+     * @param type   the type to get the top users for
+     * @param amount the number of users to fetch
+     * @return a future with the top list, completes right away if the leaderboard is seeded and all names are known
+     */
+    @Nonnull
+    public CompletableFuture<List<Pair<Component, Double>>> getTopWithName(@Nonnull Trackable type, int amount) {
+        return getTopWithUUID(type, amount).thenCompose(top -> {
+            List<UUID> missing = top.stream().map(Pair::getFirst).filter(id -> !names.containsKey(id))
+                    .collect(Collectors.toList());
+            if (missing.isEmpty()) {
+                return CompletableFuture.completedFuture(withNames(top));
+            }
+            return persistenceHandler.getAsyncProvider().getDisplayNames(missing).thenApply(found -> {
+                names.putAll(found);
+                // users without a name would be queried again for every sign update
+                missing.forEach(id -> names.putIfAbsent(id, TextComponent.of(id.toString())));
+                return withNames(top);
             });
+        });
+    }
 
-    public List<Pair<Component, Double>> getTopWithName(Trackable type, int amount) {
-        try {
-            return nameCache.get(new Pair<>(type, amount));
-        } catch (ExecutionException e) {
-            errorHandler.handle(e, Severity.WARNING, true);
+    /**
+     * Non blocking version of {@link #getTopWithName(Trackable, int)} for the main and the packet thread
+     *
+     * @param type   the type to get the top users for
+     * @param amount the number of users to fetch
+     * @return the top list if it is available, empty if it is still loading
+     */
+    @Nonnull
+    public Optional<List<Pair<Component, Double>>> peekTopWithName(@Nonnull Trackable type, int amount) {
+        return Optional.ofNullable(getTopWithName(type, amount).getNow(null));
+    }
+
+    /**
+     * Gets the rank of a user, without waiting
+     *
+     * @param type the stat type
+     * @param id   the user
+     * @return the rank of the user, starting at 1, or empty if the user has no value, is below the seeded users or the
+     * leaderboard is still loading
+     */
+    @Nonnull
+    public OptionalInt getRank(@Nonnull Trackable type, @Nonnull UUID id) {
+        Leaderboard board = getLeaderboard(type).getNow(null);
+        if (board == null) {
+            return OptionalInt.empty();
         }
+        return board.getRank(id);
+    }
 
-        return new ArrayList<>();
+    @Nonnull
+    private List<Pair<Component, Double>> withNames(@Nonnull List<Pair<UUID, Double>> top) {
+        List<Pair<Component, Double>> result = new ArrayList<>(top.size());
+        for (Pair<UUID, Double> entry : top) {
+            Component name = userHandler.getUser(entry.getFirst()).map(User::getDisplayName)
+                    .orElseGet(() -> names.getOrDefault(entry.getFirst(), TextComponent.of(entry.getFirst().toString())));
+            result.add(new Pair<>(name, entry.getSecond()));
+        }
+        return result;
     }
 }
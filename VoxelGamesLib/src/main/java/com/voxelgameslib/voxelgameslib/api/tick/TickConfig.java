@@ -0,0 +1,26 @@
+package com.voxelgameslib.voxelgameslib.api.tick;
+
+import com.google.gson.annotations.Expose;
+
+/**
+ * Stores tick scheduling related config values
+ */
+public class TickConfig {
+
+    /**
+     * The time (in ms) all tickables together are allowed to use every tick. A value <= 0 disables the budget
+     */
+    @Expose
+    public int budget = 25;
+    /**
+     * The amount of ticks a tickable can fall behind before it is forced to tick, even if that exceeds the budget. The
+     * deferred ticks are caught up on once there is budget left
+     */
+    @Expose
+    public int maxDeferredTicks = 10;
+    /**
+     * Every how many ticks victory conditions are checked if none of them reported a change
+     */
+    @Expose
+    public int victoryConditionPollInterval = 20;
+}
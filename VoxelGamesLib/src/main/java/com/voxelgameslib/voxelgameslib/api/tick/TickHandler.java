@@ -2,7 +2,10 @@ package com.voxelgameslib.voxelgameslib.api.tick;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -11,6 +14,7 @@ import com.voxelgameslib.voxelgameslib.VoxelGamesLib;
 import com.voxelgameslib.voxelgameslib.api.feature.Feature;
 import com.voxelgameslib.voxelgameslib.api.game.Game;
 import com.voxelgameslib.voxelgameslib.api.phase.Phase;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
 
 import org.bukkit.Bukkit;
@@ -21,39 +25,95 @@ import co.aikar.commands.lib.timings.TimingManager;
 /**
  * The TickHandler handles the ticking of all Tickables on the server. However not every Tickable is registered here.
  * {@link Phase}s and {@link Feature}s receive their ticks from the {@link Game} instance<br> Every server mod has it's
- * own implementation of the TickHandler
+ * own implementation of the TickHandler<br>
+ * All tickables share a time budget per tick (see {@link TickConfig}). Once the budget is used up, the remaining
+ * tickables (except {@link TickPriority#HIGH} ones) are deferred to the next tick. Deferred ticks are not lost, a
+ * tickable that is behind is ticked first and is ticked again for every deferred tick as long as there is budget left.
+ * A tickable that is too far behind is forced to tick even without budget, so it can't starve.
  */
 @Singleton
 public class TickHandler implements Handler {
 
+    private static final Logger log = Logger.getLogger(TickHandler.class.getName());
+
+    private static final Comparator<TickableStats> ORDER = Comparator
+            .comparing(TickableStats::getPriority)
+            .thenComparing(Comparator.comparingInt(TickableStats::getDebt).reversed())
+            .thenComparingLong(TickableStats::getOrder);
+
     @Inject
     private VoxelGamesLib voxelGamesLib;
     @Inject
     private TimingManager timingsManager;
+    @Inject
+    private GlobalConfig config;
 
-    private final List<Tickable> tickables = new ArrayList<>();
+    private final List<TickableStats> tickables = new ArrayList<>();
     private final List<Tickable> removeQueue = Collections.synchronizedList(new ArrayList<>());
 
+    private long registrations;
+    private long overBudgetTicks;
+
     private MCTiming tickTiming;
 
     /**
-     * Called when the underlying server mod calls a tick. Causes all {@link Tickable}s to tick
+     * Called when the underlying server mod calls a tick. Causes all {@link Tickable}s to tick, as long as the tick
+     * budget allows it
      */
     public void tick() {
         // disable old stuff
-        removeQueue.forEach(Tickable::disable);
-        tickables.removeAll(removeQueue);
-        removeQueue.clear();
+        synchronized (removeQueue) {
+            removeQueue.forEach(Tickable::disable);
+            tickables.removeIf(stats -> removeQueue.contains(stats.getTickable()));
+            removeQueue.clear();
+        }
+
+        long budget = TimeUnit.MILLISECONDS.toNanos(config.tick.budget);
+        int maxDeferredTicks = config.tick.maxDeferredTicks;
+        boolean overBudget = false;
+
+        // sort a copy, tickables might register new tickables while ticking
+        List<TickableStats> ordered = new ArrayList<>(tickables);
+        ordered.sort(ORDER);
 
         tickTiming.startTiming();
-        for (Tickable tickable : tickables) {
-            MCTiming timing = timingsManager.ofStart("Tickable: " + tickable.getClass().getSimpleName(), tickTiming);
-            tickable.tick();
-            timing.stopTiming();
+        long start = System.nanoTime();
+        for (TickableStats stats : ordered) {
+            if (!overBudget && budget > 0 && System.nanoTime() - start >= budget) {
+                overBudget = true;
+                overBudgetTicks++;
+            }
+
+            if (overBudget && stats.getPriority() != TickPriority.HIGH) {
+                if (stats.getDebt() < maxDeferredTicks) {
+                    stats.defer();
+                    continue;
+                }
+                stats.starved();
+                log.finer("Tickable " + stats.getTickable().getClass().getSimpleName() + " is "
+                        + stats.getDebt() + " ticks behind, forcing it to tick");
+            }
+
+            tick(stats);
+            // catch up on the deferred ticks while there is budget left, unless the tickable ended itself
+            while (stats.getDebt() > 0 && (budget <= 0 || System.nanoTime() - start < budget)
+                    && !removeQueue.contains(stats.getTickable())) {
+                tick(stats);
+                stats.caughtUp();
+            }
         }
         tickTiming.stopTiming();
     }
 
+    private void tick(@Nonnull TickableStats stats) {
+        Tickable tickable = stats.getTickable();
+        MCTiming timing = timingsManager.ofStart("Tickable: " + tickable.getClass().getSimpleName(), tickTiming);
+        long tickableStart = System.nanoTime();
+        tickable.tick();
+        stats.ticked(System.nanoTime() - tickableStart);
+        timing.stopTiming();
+    }
+
     /**
      * Starts the ticker
      */
@@ -68,17 +128,27 @@ public class TickHandler implements Handler {
      */
     @Override
     public void disable() {
-        tickables.forEach(Tickable::disable);
+        tickables.forEach(stats -> stats.getTickable().disable());
         tickables.clear();
     }
 
     /**
-     * Registers a new {@link Tickable}. Calls the {@link Tickable#enable()} method.
+     * Registers a new {@link Tickable} with {@link TickPriority#NORMAL}. Calls the {@link Tickable#enable()} method.
      *
      * @param tickable the new {@link Tickable} that should now receive server ticks
      */
     public void registerTickable(@Nonnull Tickable tickable) {
-        tickables.add(tickable);
+        registerTickable(tickable, TickPriority.NORMAL);
+    }
+
+    /**
+     * Registers a new {@link Tickable}. Calls the {@link Tickable#enable()} method.
+     *
+     * @param tickable the new {@link Tickable} that should now receive server ticks
+     * @param priority the priority of the tickable, decides if it can be deferred when the tick budget is used up
+     */
+    public void registerTickable(@Nonnull Tickable tickable, @Nonnull TickPriority priority) {
+        tickables.add(new TickableStats(tickable, priority, registrations++));
         tickable.enable();
     }
 
@@ -90,4 +160,19 @@ public class TickHandler implements Handler {
     public void end(@Nonnull Tickable tickable) {
         removeQueue.add(tickable);
     }
+
+    /**
+     * @return the stats (timings, debt and starvation) of all registered tickables
+     */
+    @Nonnull
+    public List<TickableStats> getTickableStats() {
+        return Collections.unmodifiableList(tickables);
+    }
+
+    /**
+     * @return how many ticks ran out of budget since the server started
+     */
+    public long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
 }
@@ -0,0 +1,21 @@
+package com.voxelgameslib.voxelgameslib.api.tick;
+
+/**
+ * The priority of a {@link Tickable} decides in which order tickables are ticked and if they are allowed to be deferred
+ * when the tick budget is used up.
+ */
+public enum TickPriority {
+
+    /**
+     * Ticked first and never deferred, even if the tick budget is exceeded
+     */
+    HIGH,
+    /**
+     * Ticked after {@link #HIGH}, may be deferred if the budget is used up
+     */
+    NORMAL,
+    /**
+     * Ticked last, will be the first to be deferred if the budget is used up
+     */
+    LOW
+}
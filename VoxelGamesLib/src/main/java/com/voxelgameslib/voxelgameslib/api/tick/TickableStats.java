@@ -0,0 +1,130 @@
+package com.voxelgameslib.voxelgameslib.api.tick;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Keeps track of how expensive a {@link Tickable} is and how often it had to be deferred by the {@link TickHandler}
+ */
+public class TickableStats {
+
+    private final Tickable tickable;
+    private final TickPriority priority;
+    private final long order;
+
+    private int debt;
+    private int maxDebt;
+    private long deferredTicks;
+    private long starvedTicks;
+
+    private long ticks;
+    private long totalNanos;
+    private long lastNanos;
+    private long maxNanos;
+
+    TickableStats(@Nonnull Tickable tickable, @Nonnull TickPriority priority, long order) {
+        this.tickable = tickable;
+        this.priority = priority;
+        this.order = order;
+    }
+
+    void defer() {
+        debt++;
+        deferredTicks++;
+        if (debt > maxDebt) {
+            maxDebt = debt;
+        }
+    }
+
+    void starved() {
+        starvedTicks++;
+    }
+
+    void caughtUp() {
+        debt--;
+    }
+
+    void ticked(long nanos) {
+        ticks++;
+        totalNanos += nanos;
+        lastNanos = nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    long getOrder() {
+        return order;
+    }
+
+    /**
+     * @return the tickable these stats belong to
+     */
+    @Nonnull
+    public Tickable getTickable() {
+        return tickable;
+    }
+
+    /**
+     * @return the priority the tickable was registered with
+     */
+    @Nonnull
+    public TickPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return the number of ticks this tickable is currently behind
+     */
+    public int getDebt() {
+        return debt;
+    }
+
+    /**
+     * @return the highest debt this tickable ever had
+     */
+    public int getMaxDebt() {
+        return maxDebt;
+    }
+
+    /**
+     * @return how many ticks this tickable was deferred in total
+     */
+    public long getDeferredTicks() {
+        return deferredTicks;
+    }
+
+    /**
+     * @return how many times this tickable was too far behind and was forced to tick over budget
+     */
+    public long getStarvedTicks() {
+        return starvedTicks;
+    }
+
+    /**
+     * @return how many times this tickable was ticked, including the ticks that caught up on deferred ones
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return the duration of the last tick in nanoseconds
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * @return the duration of the longest tick in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return the average duration of a tick in nanoseconds
+     */
+    public long getAverageNanos() {
+        return ticks == 0 ? 0 : totalNanos / ticks;
+    }
+}
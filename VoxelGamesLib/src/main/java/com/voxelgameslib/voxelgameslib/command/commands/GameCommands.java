@@ -14,6 +14,8 @@ import javax.inject.Singleton;
 import com.voxelgameslib.voxelgameslib.api.game.Game;
 import com.voxelgameslib.voxelgameslib.api.game.GameHandler;
 import com.voxelgameslib.voxelgameslib.api.game.GameMode;
+import com.voxelgameslib.voxelgameslib.components.matchmaking.MatchmakingHandler;
+import com.voxelgameslib.voxelgameslib.components.matchmaking.Queue;
 import com.voxelgameslib.voxelgameslib.components.user.User;
 import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.lang.Lang;
@@ -24,6 +26,7 @@ import co.aikar.commands.CommandHelp;
 import co.aikar.commands.annotation.CommandAlias;
 import co.aikar.commands.annotation.CommandCompletion;
 import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Default;
 import co.aikar.commands.annotation.HelpCommand;
 import co.aikar.commands.annotation.Subcommand;
 import co.aikar.commands.annotation.Syntax;
@@ -38,6 +41,8 @@ public class GameCommands extends BaseCommand {
     private GameHandler gameHandler;
     @Inject
     private GlobalConfig config;
+    @Inject
+    private MatchmakingHandler matchmakingHandler;
 
     @HelpCommand
     @CommandPermission("%user")
@@ -139,6 +144,29 @@ public class GameCommands extends BaseCommand {
         }
     }
 
+    @Subcommand("queue")
+    @CommandCompletion("@gamemodes")
+    @Syntax("<mode> [ranked] - the mode you want to queue for, ranked or unranked")
+    @CommandPermission("%user")
+    public void gameQueue(@Nonnull User sender, @Nonnull GameMode mode, @Default("false") boolean ranked) {
+        if (matchmakingHandler.queue(sender, mode, ranked)) {
+            Queue queue = matchmakingHandler.getQueue(mode, ranked);
+            Lang.msg(sender, LangKey.GAME_QUEUE_JOINED, mode.getName(), queue.size());
+        } else {
+            Lang.msg(sender, LangKey.GAME_QUEUE_ALREADY_QUEUED);
+        }
+    }
+
+    @Subcommand("leavequeue")
+    @CommandPermission("%user")
+    public void gameLeaveQueue(@Nonnull User sender) {
+        if (matchmakingHandler.leaveQueues(sender.getUuid())) {
+            Lang.msg(sender, LangKey.GAME_QUEUE_LEFT);
+        } else {
+            Lang.msg(sender, LangKey.GAME_QUEUE_NOT_QUEUED);
+        }
+    }
+
     @Subcommand("leave")
     @CommandPermission("%user")
     public void gameLeave(@Nonnull User sender) {
@@ -2,11 +2,12 @@ package com.voxelgameslib.voxelgameslib.command.commands;
 
 import net.kyori.text.Component;
 
-import java.util.List;
+import java.util.OptionalInt;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.voxelgameslib.voxelgameslib.VoxelGamesLib;
 import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
 import com.voxelgameslib.voxelgameslib.api.stats.StatsHandler;
 import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
@@ -15,6 +16,8 @@ import com.voxelgameslib.voxelgameslib.internal.lang.Lang;
 import com.voxelgameslib.voxelgameslib.internal.lang.LangKey;
 import com.voxelgameslib.voxelgameslib.util.Pair;
 
+import org.bukkit.Bukkit;
+
 import co.aikar.commands.BaseCommand;
 import co.aikar.commands.CommandHelp;
 import co.aikar.commands.annotation.CommandAlias;
@@ -33,6 +36,8 @@ public class StatsCommands extends BaseCommand {
 
     @Inject
     private StatsHandler statsHandler;
+    @Inject
+    private VoxelGamesLib voxelGamesLib;
 
     @HelpCommand
     @CommandPermission("%admin")
@@ -111,12 +116,33 @@ public class StatsCommands extends BaseCommand {
                     @Description("the amount to of entry you want to see, defaults to 5")
                     @Default("5") int amount) {
 
-        List<Pair<Component, Double>> top = statsHandler.getTopWithName(type, amount);
-        Lang.msg(sender, LangKey.STATS_TOP_HEADER, top.size(), type.getDisplayName());
+        statsHandler.getTopWithName(type, amount).thenAccept(top -> Bukkit.getScheduler().runTask(voxelGamesLib, () -> {
+            Lang.msg(sender, LangKey.STATS_TOP_HEADER, top.size(), type.getDisplayName());
+
+            int i = 1;
+            for (Pair<Component, Double> e : top) {
+                Lang.msg(sender, LangKey.STATS_TOP_ENTRY, i++, e.getFirst(), e.getSecond());
+            }
+        }));
+    }
 
-        int i = 1;
-        for (Pair<Component, Double> e : top) {
-            Lang.msg(sender, LangKey.STATS_TOP_ENTRY, i++, e.getFirst(), e.getSecond());
-        }
+    @Subcommand("rank")
+    @Description("Allows you to see the rank of a user for a stat type")
+    @CommandPermission("%admin")
+    @CommandCompletion("@players @stats")
+    public void rank(User sender,
+                     @Description("the user which rank should be displayed")
+                     @Flags("other,defaultself") User user,
+                     @Description("the stats type which ranking you want to view")
+                             Trackable type) {
+        statsHandler.getLeaderboard(type).thenAccept(board -> Bukkit.getScheduler().runTask(voxelGamesLib, () -> {
+            OptionalInt rank = board.getRank(user.getUuid());
+            if (rank.isPresent()) {
+                Lang.msg(sender, LangKey.STATS_RANK, user.getDisplayName(), rank.getAsInt(), type.getDisplayName(),
+                        type.formatLong(board.getValue(user.getUuid()).orElse(0), sender.getLocale()));
+            } else {
+                Lang.msg(sender, LangKey.STATS_NOT_RANKED, user.getDisplayName(), type.getDisplayName());
+            }
+        }));
     }
 }
@@ -2,9 +2,19 @@ package com.voxelgameslib.voxelgameslib.command.commands;
 
 import com.google.inject.name.Named;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
+import com.voxelgameslib.voxelgameslib.api.tick.TickHandler;
+import com.voxelgameslib.voxelgameslib.api.tick.TickableStats;
+import com.voxelgameslib.voxelgameslib.components.world.WorldTrash;
+import com.voxelgameslib.voxelgameslib.internal.persistence.HibernatePersistenceProvider;
+import com.voxelgameslib.voxelgameslib.internal.persistence.PersistenceHandler;
+import com.voxelgameslib.voxelgameslib.internal.persistence.PoolMetrics;
+import com.voxelgameslib.voxelgameslib.internal.persistence.WriteBehindQueue;
+
 import org.bukkit.command.CommandSender;
 
 import co.aikar.commands.BaseCommand;
@@ -20,6 +30,12 @@ public final class VGLCommands extends BaseCommand {
     @Inject
     @Named("PluginVersion")
     private String pluginVersion;
+    @Inject
+    private TickHandler tickHandler;
+    @Inject
+    private WorldTrash worldTrash;
+    @Inject
+    private PersistenceHandler persistenceHandler;
 
     @Default
     @CatchAll
@@ -28,4 +44,54 @@ public final class VGLCommands extends BaseCommand {
     public void version(@Nonnull CommandSender sender) {
         sender.sendMessage("You are using VoxelGamesLib version " + pluginVersion);
     }
+
+    @Subcommand("ticks")
+    @CommandPermission("%admin")
+    public void ticks(@Nonnull CommandSender sender) {
+        sender.sendMessage("Tickables (" + tickHandler.getOverBudgetTicks() + " ticks over budget):");
+        for (TickableStats stats : tickHandler.getTickableStats()) {
+            sender.sendMessage(stats.getTickable().getClass().getSimpleName() + " [" + stats.getPriority() + "]"
+                    + " avg: " + TimeUnit.NANOSECONDS.toMicros(stats.getAverageNanos()) + "us"
+                    + " max: " + TimeUnit.NANOSECONDS.toMicros(stats.getMaxNanos()) + "us"
+                    + " debt: " + stats.getDebt() + " (max " + stats.getMaxDebt() + ")"
+                    + " deferred: " + stats.getDeferredTicks()
+                    + " starved: " + stats.getStarvedTicks());
+        }
+    }
+
+    @Subcommand("worldtrash")
+    @CommandPermission("%admin")
+    public void worldTrash(@Nonnull CommandSender sender) {
+        sender.sendMessage("World folders pending deletion: " + worldTrash.getPending()
+                + " deleted: " + worldTrash.getDeleted() + " (" + worldTrash.getDeletedFiles() + " files)"
+                + " failed: " + worldTrash.getFailed());
+    }
+
+    @Subcommand("persistence")
+    @CommandPermission("%admin")
+    public void persistence(@Nonnull CommandSender sender) {
+        WriteBehindQueue queue = persistenceHandler.getWriteBehindQueue();
+        sender.sendMessage("Provider: " + persistenceHandler.getProvider().getClass().getSimpleName()
+                + " pending writes: " + queue.getPending()
+                + " queued: " + queue.getQueued() + " written: " + queue.getWritten());
+
+        if (persistenceHandler.getProvider() instanceof HibernatePersistenceProvider) {
+            HibernatePersistenceProvider provider = (HibernatePersistenceProvider) persistenceHandler.getProvider();
+            Optional<PoolMetrics> metrics = provider.getPoolMetrics();
+            if (!metrics.isPresent()) {
+                sender.sendMessage("Connections are pooled by hibernate, no pool metrics available");
+                return;
+            }
+            PoolMetrics pool = metrics.get();
+            sender.sendMessage("Connections active: " + pool.getActiveConnections()
+                    + " idle: " + pool.getIdleConnections()
+                    + " waiting threads: " + pool.getPendingThreads()
+                    + " opened: " + pool.getCreated());
+            sender.sendMessage("Connection wait avg: " + TimeUnit.NANOSECONDS.toMicros(pool.getAverageWaitNanos()) + "us"
+                    + " max: " + TimeUnit.NANOSECONDS.toMicros(pool.getMaxWaitNanos()) + "us"
+                    + " usage avg: " + pool.getAverageUsageMillis() + "ms"
+                    + " acquired: " + pool.getAcquired()
+                    + " timeouts: " + pool.getTimeouts());
+        }
+    }
 }
@@ -35,7 +35,7 @@ public class WorldRepositoryCommands extends BaseCommand {
     @Subcommand("updateRepo")
     @CommandPermission("%admin")
     public void updateRepo(@Nonnull User sender) {
-        worldHandler.getWorldRepository().updateRepo();
+        worldHandler.updateRepo();
         sender.sendMessage(TextComponent.of("[VGL] Repositories updated.").color(TextColor.GREEN));
     }
 
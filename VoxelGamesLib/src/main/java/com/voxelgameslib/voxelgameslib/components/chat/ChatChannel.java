@@ -3,8 +3,8 @@ package com.voxelgameslib.voxelgameslib.components.chat;
 import net.kyori.text.Component;
 import net.kyori.text.TextComponent;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -28,7 +28,8 @@ public class ChatChannel {
      */
     ChatChannel(@Nonnull String identifier, @Nullable Component prefix) {
         this.identifier = identifier;
-        this.listeners = new ArrayList<>();
+        // written on the main thread, iterated by the async chat thread
+        this.listeners = new CopyOnWriteArrayList<>();
         this.prefix = prefix;
     }
 
@@ -77,7 +78,17 @@ public class ChatChannel {
      * @param message the message to send
      */
     public void sendMessage(@Nonnull User byUser, @Nonnull Component message) {
-        listeners.forEach(listener -> listener.sendMessage(ChatUtil.formatChannelMessage(this, byUser.getDisplayName(), message)));
+        sendMessage(PreparedMessage.of(ChatUtil.formatChannelMessage(this, byUser.getDisplayName(), message)));
+    }
+
+    /**
+     * Sends an already formatted message to the channel's listeners. The message is serialized and turned into a packet
+     * once, no matter how many listeners there are. Safe to call from the async chat thread.
+     *
+     * @param message the message to send
+     */
+    public void sendMessage(@Nonnull PreparedMessage message) {
+        listeners.forEach(listener -> listener.sendMessage(message));
     }
 
     public String getIdentifier() {
@@ -98,7 +109,7 @@ public class ChatChannel {
     }
 
     public void setListeners(List<User> listeners) {
-        this.listeners = listeners;
+        this.listeners = new CopyOnWriteArrayList<>(listeners);
     }
 
     public void setPrefix(@Nullable Component prefix) {
@@ -1,11 +1,12 @@
 package com.voxelgameslib.voxelgameslib.components.chat;
 
 import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.inject.Singleton;
 
@@ -29,7 +30,7 @@ public class ChatHandler implements Handler {
         // every user should be in this channel:
         defaultChannel = new ChatChannel("default");
 
-        activeChannels = new HashMap<>();
+        activeChannels = new ConcurrentHashMap<>();
         activeChannels.put("default", defaultChannel);
     }
 
@@ -60,9 +61,7 @@ public class ChatHandler implements Handler {
      * @param message message the message to broadcast
      */
     public void broadcastMessage(@Nonnull User user, @Nonnull String message) {
-        for (ChatChannel channel : activeChannels.values()) {
-            channel.sendMessage(user, message);
-        }
+        broadcastMessage(user, TextComponent.of(message));
     }
 
     /**
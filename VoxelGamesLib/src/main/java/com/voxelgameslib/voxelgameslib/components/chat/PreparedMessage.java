@@ -0,0 +1,67 @@
+package com.voxelgameslib.voxelgameslib.components.chat;
+
+import net.kyori.text.Component;
+import net.kyori.text.serializer.ComponentSerializers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.voxelgameslib.voxelgameslib.util.utils.ChatUtil;
+import com.voxelgameslib.voxelgameslib.util.utils.NMSBridge;
+
+/**
+ * A message that is send to many users. The component is serialized to json and turned into a chat packet only once
+ * (the first time it is needed), every recipient after that gets the same packet.
+ */
+public class PreparedMessage {
+
+    private final Component component;
+    private volatile String json;
+    private volatile Object packet;
+
+    private PreparedMessage(@Nonnull Component component) {
+        this.component = component;
+    }
+
+    /**
+     * @param component the message to send
+     * @return the prepared message
+     */
+    @Nonnull
+    public static PreparedMessage of(@Nonnull Component component) {
+        return new PreparedMessage(component);
+    }
+
+    @Nonnull
+    public Component getComponent() {
+        return component;
+    }
+
+    /**
+     * @return the json representation of the component
+     */
+    @Nonnull
+    public String getJson() {
+        String result = json;
+        if (result == null) {
+            // racing threads serialize the same immutable component, so they end up with equal strings
+            result = ComponentSerializers.JSON.serialize(component);
+            json = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the chat packet for this message, or null if the server version doesn't support it
+     * @see ChatUtil#createChatPacket(String)
+     */
+    @Nullable
+    public Object getPacket() {
+        Object result = packet;
+        if (result == null && NMSBridge.hasChatPackets()) {
+            result = ChatUtil.createChatPacket(getJson());
+            packet = result;
+        }
+        return result;
+    }
+}
@@ -5,6 +5,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 import jskills.Rating;
 
@@ -14,7 +15,17 @@ public class RatingWrapper {
 
     @Id
     @GeneratedValue
-    private int id;
+    private volatile int id;
+    /**
+     * the rating this one was copied from, see {@link #snapshot()}
+     */
+    @Transient
+    private RatingWrapper source;
+    /**
+     * the id before this copy was written, see {@link #resetId()}
+     */
+    @Transient
+    private int previousId;
 
     private double conservativeStandardDeviationMultiplier;
     private double mean;
@@ -45,6 +56,48 @@ public class RatingWrapper {
         this.conservativeRating = conservativeRating;
     }
 
+    /**
+     * Creates a copy that can be written on another thread. The copy remembers this rating, so the id that is generated
+     * when the copy is written can be handed back.
+     *
+     * @return the copy
+     */
+    @Nonnull
+    public RatingWrapper snapshot() {
+        RatingWrapper copy = new RatingWrapper(id, conservativeStandardDeviationMultiplier, mean, standardDeviation,
+                conservativeRating);
+        copy.source = this;
+        return copy;
+    }
+
+    /**
+     * Takes over the id of the rating this was copied from, if an earlier copy of it was written in the meantime
+     */
+    public void refreshId() {
+        if (id == 0 && source != null) {
+            source.refreshId();
+            id = source.id;
+        }
+        previousId = id;
+    }
+
+    /**
+     * Called when writing this copy failed. The provider may have assigned an id that was rolled back, so the copy goes
+     * back to the id it had in {@link #refreshId()}, otherwise the next try would update a row that doesn't exist.
+     */
+    public void resetId() {
+        id = previousId;
+    }
+
+    /**
+     * Called after this copy was written, hands the generated id back to the rating it was copied from
+     */
+    public void onPersisted() {
+        if (source != null && source.id == 0) {
+            source.id = id;
+        }
+    }
+
     @Nonnull
     public Rating toRating() {
         return new Rating(getMean(), getStandardDeviation(), getConservativeStandardDeviationMultiplier());
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -37,6 +38,8 @@ public class Map {
     private List<ChestMarker> chestMarkers = new ArrayList<>();
 
     private HashMap<UUID, String> loadedNames = new HashMap<>();
+    // marker prefix -> index, built on first use
+    private java.util.Map<String, MarkerIndex> markerIndex = new ConcurrentHashMap<>();
 
     /**
      * @param mapInfo   the map info for this map
@@ -60,6 +63,27 @@ public class Map {
      */
     public void initMarkers(@Nonnull MapHandler mapHandler) {
         markers.forEach(marker -> marker.setMarkerDefinition(mapHandler.createMarkerDefinition(marker.getData())));
+        getMarkerIndexes().clear();
+    }
+
+    /**
+     * Gets the index for all markers of the same type as the definition
+     *
+     * @param definition the definition of the markers
+     * @return the index for that marker type
+     */
+    @Nonnull
+    public MarkerIndex getMarkerIndex(@Nonnull MarkerDefinition definition) {
+        return getMarkerIndexes().computeIfAbsent(definition.getPrefix(), (prefix) -> new MarkerIndex(
+                markers.stream().filter(marker -> definition.isOfSameType(marker.getMarkerDefinition())).collect(Collectors.toList())));
+    }
+
+    @Nonnull
+    private java.util.Map<String, MarkerIndex> getMarkerIndexes() {
+        if (markerIndex == null) {
+            markerIndex = new ConcurrentHashMap<>();
+        }
+        return markerIndex;
     }
 
     /**
@@ -119,7 +143,7 @@ public class Map {
 
     @Nonnull
     public List<Marker> getMarkers(@Nonnull MarkerDefinition spawnMarker) {
-        return markers.stream().filter(marker -> spawnMarker.isOfSameType(marker.getMarkerDefinition())).collect(Collectors.toList());
+        return getMarkerIndex(spawnMarker).getMarkers();
     }
 
     public MapInfo getInfo() {
@@ -168,6 +192,7 @@ public class Map {
 
     public void setMarkers(List<Marker> markers) {
         this.markers = markers;
+        getMarkerIndexes().clear();
     }
 
     public void setChestMarkers(List<ChestMarker> chestMarkers) {
@@ -1,14 +1,22 @@
 package com.voxelgameslib.voxelgameslib.components.map;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.voxelgameslib.voxelgameslib.VoxelGamesLib;
 import com.voxelgameslib.voxelgameslib.api.exception.MapException;
 import com.voxelgameslib.voxelgameslib.components.placeholders.SkullPlaceHolders;
 import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
@@ -21,6 +29,7 @@ import org.bukkit.World;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.Chest;
 import org.bukkit.block.Skull;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -30,61 +39,75 @@ import org.bukkit.inventory.ItemStack;
 public class MapScanner {
 
     private static final Logger log = Logger.getLogger(MapScanner.class.getName());
+    private static final int IN_FLIGHT_CHUNKS = 32;
+    private static final Comparator<Marker> MARKER_ORDER = Comparator.<Marker>comparingDouble(marker -> marker.getLoc().getX())
+            .thenComparingDouble(marker -> marker.getLoc().getZ()).thenComparingDouble(marker -> marker.getLoc().getY());
     @Inject
     private MapHandler mapHandler;
     @Inject
     private SkullPlaceHolders skullPlaceHolders;
+    @Inject
+    private VoxelGamesLib voxelGamesLib;
 
     /**
-     * Scans a map for markers
+     * Scans a map for markers. Chunks are loaded async, the markers are extracted on the fork join pool.
      *
-     * @param map    the map to scan
-     * @param gameid the id of the game that the map belongs to
+     * @param map      the map to scan
+     * @param gameid   the id of the game that the map belongs to
+     * @param progress gets called (on the main thread) with the number of scanned and total chunks, may be null
+     * @return a future that completes (on the main thread) once the markers are set on the map
      */
-    public void scan(@Nonnull Map map, @Nonnull UUID gameid) {
-        searchForMarkers(map, map.getCenter(), map.getRadius(), gameid);
-
-        List<Marker> errored = new ArrayList<>();
-
-        map.getMarkers().stream().filter(marker -> marker.getData().startsWith("chest:"))
-                .forEach(marker -> {
-                    String name = marker.getData().replace("chest:", "");
-                    if (!map.getChestMarker(name).isPresent()) {
-                        log.warning(
-                                "Could not find a chest " + name + " for marker at " + marker.getLoc().toString());
-                        errored.add(marker);
-                    }
-                });
+    @Nonnull
+    public CompletableFuture<Void> scan(@Nonnull Map map, @Nonnull UUID gameid, @Nullable BiConsumer<Integer, Integer> progress) {
+        return searchForMarkers(map, map.getCenter(), map.getRadius(), gameid, progress).thenRun(() -> {
+            List<Marker> errored = new ArrayList<>();
 
-        map.getMarkers().removeAll(errored);
+            map.getMarkers().stream().filter(marker -> marker.getData().startsWith("chest:"))
+                    .forEach(marker -> {
+                        String name = marker.getData().replace("chest:", "");
+                        if (!map.getChestMarker(name).isPresent()) {
+                            log.warning(
+                                    "Could not find a chest " + name + " for marker at " + marker.getLoc().toString());
+                            errored.add(marker);
+                        }
+                    });
 
-        List<ChestMarker> errored2 = new ArrayList<>();
+            List<Marker> markers = new ArrayList<>(map.getMarkers());
+            markers.removeAll(errored);
+            map.setMarkers(markers);
 
-        map.getChestMarkers().stream().filter(marker -> marker.getData().startsWith("container.chest"))
-                .forEach(marker -> {
-                    log.warning("Found unnamed chest at " + marker.getLoc().toString());
-                    errored2.add(marker);
-                });
+            List<ChestMarker> errored2 = new ArrayList<>();
+
+            map.getChestMarkers().stream().filter(marker -> marker.getData().startsWith("container.chest"))
+                    .forEach(marker -> {
+                        log.warning("Found unnamed chest at " + marker.getLoc().toString());
+                        errored2.add(marker);
+                    });
 
-        map.getChestMarkers().removeAll(errored2);
+            map.getChestMarkers().removeAll(errored2);
+        });
     }
 
     /**
-     * Searches the map for "markers". Most of the time these are implemented as tile entities (skulls)
+     * Searches the map for "markers". Most of the time these are implemented as tile entities (skulls)<br>
+     * Chunks are loaded async (only a few at a time), their tile entity snapshots are taken on the main thread and
+     * skulls are turned into markers on the fork join pool. Chest contents are copied on the main thread.
      *
-     * @param map    the map to scan
-     * @param center the center location
-     * @param range  the range in where to scan
+     * @param map      the map to scan
+     * @param center   the center location
+     * @param range    the range in where to scan
+     * @param gameid   the id of the game that the map belongs to
+     * @param progress gets called (on the main thread) with the number of scanned and total chunks, may be null
+     * @return a future that completes (on the main thread) once the markers are set on the map
      */
-    public void searchForMarkers(@Nonnull Map map, @Nonnull Vector3D center, int range, @Nonnull UUID gameid) {
+    @Nonnull
+    public CompletableFuture<Void> searchForMarkers(@Nonnull Map map, @Nonnull Vector3D center, int range, @Nonnull UUID gameid,
+                                                    @Nullable BiConsumer<Integer, Integer> progress) {
         World world = Bukkit.getWorld(map.getLoadedName(gameid));
         if (world == null) {
             throw new MapException("Could not find world " + map.getLoadedName(gameid) + "(" + map.getInfo().getDisplayName() + ")" + ". Is it loaded?");
         }
 
-        List<Marker> markers = new ArrayList<>();
-        List<ChestMarker> chestMarkers = new ArrayList<>();
-
         int startX = (int) center.getX();
         int startY = (int) center.getZ();
 
@@ -94,41 +117,169 @@ public class MapScanner {
         int maxX = Math.max(startX - range, startX + range);
         int maxZ = Math.max(startY - range, startY + range);
 
-        for (int x = minX; x <= maxX; x += 16) {
-            for (int z = minZ; z <= maxZ; z += 16) {
-                Chunk chunk = world.getChunkAt(x >> 4, z >> 4);
-                for (BlockState te : chunk.getTileEntities()) {
-                    if (te.getType() == Material.PLAYER_HEAD) {
-                        Skull skull = (Skull) te;
-                        String markerData = getMarkerData(skull);
-                        if (markerData == null) continue;
-                        MarkerDefinition markerDefinition = mapHandler.createMarkerDefinition(markerData);
-                        markers.add(new Marker(new Vector3D(skull.getX(), skull.getY(), skull.getZ()),
-                                DirectionUtil.directionToYaw(skull.getRotation()),
-                                markerData, markerDefinition));
-                    } else if (te.getType() == Material.CHEST) {
-                        Chest chest = (Chest) te;
-                        String name = chest.getBlockInventory().getName();
-                        ItemStack[] items = new ItemStack[chest.getBlockInventory()
-                                .getStorageContents().length];
-                        for (int i = 0; i < items.length; i++) {
-                            ItemStack is = chest.getBlockInventory().getItem(i);
-                            if (is == null) {
-                                items[i] = new ItemStack(Material.AIR);
-                            } else {
-                                items[i] = is;
-                            }
-                        }
-                        chestMarkers
-                                .add(new ChestMarker(new Vector3D(chest.getX(), chest.getY(), chest.getZ()), name,
-                                        items));
+        List<int[]> chunks = new ArrayList<>();
+        for (int x = minX >> 4; x <= maxX >> 4; x++) {
+            for (int z = minZ >> 4; z <= maxZ >> 4; z++) {
+                chunks.add(new int[]{x, z});
+            }
+        }
+
+        ScanTask task = new ScanTask(world, chunks, progress);
+        return task.start().thenRun(() -> {
+            // sort, so that the config doesn't change if the map didn't
+            List<Marker> markers = new ArrayList<>(task.markers);
+            markers.sort(MARKER_ORDER);
+            List<ChestMarker> chestMarkers = new ArrayList<>(task.chestMarkers);
+            chestMarkers.sort(MARKER_ORDER);
+
+            map.setMarkers(markers);
+            map.setChestMarkers(chestMarkers);
+        });
+    }
+
+    /**
+     * Extracts the marker from a skull snapshot
+     */
+    @Nullable
+    private Marker toMarker(@Nonnull Skull skull) {
+        String markerData = getMarkerData(skull);
+        if (markerData == null) return null;
+        MarkerDefinition markerDefinition = mapHandler.createMarkerDefinition(markerData);
+        return new Marker(new Vector3D(skull.getX(), skull.getY(), skull.getZ()),
+                DirectionUtil.directionToYaw(skull.getRotation()),
+                markerData, markerDefinition);
+    }
+
+    /**
+     * Extracts the chest marker from a chest. The inventory of the chest is live, so this needs to run on the main
+     * thread, the marker only gets copies of the items.
+     */
+    @Nonnull
+    private ChestMarker toChestMarker(@Nonnull Chest chest) {
+        Inventory inventory = chest.getBlockInventory();
+        String name = inventory.getName();
+        ItemStack[] contents = inventory.getStorageContents();
+        ItemStack[] items = new ItemStack[contents.length];
+        for (int i = 0; i < items.length; i++) {
+            ItemStack is = contents[i];
+            if (is == null) {
+                items[i] = new ItemStack(Material.AIR);
+            } else {
+                items[i] = is.clone();
+            }
+        }
+        return new ChestMarker(new Vector3D(chest.getX(), chest.getY(), chest.getZ()), name, items);
+    }
+
+    /**
+     * One scan. Keeps a few chunk loads in flight, every loaded chunk requests the next one.
+     */
+    private class ScanTask {
+
+        private final World world;
+        private final List<int[]> chunks;
+        private final BiConsumer<Integer, Integer> progress;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final Queue<Marker> markers = new ConcurrentLinkedQueue<>();
+        private final Queue<ChestMarker> chestMarkers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger scanned = new AtomicInteger();
+        // only touched on the main thread
+        private int next;
+        private int lastReported;
+
+        ScanTask(@Nonnull World world, @Nonnull List<int[]> chunks, @Nullable BiConsumer<Integer, Integer> progress) {
+            this.world = world;
+            this.chunks = chunks;
+            this.progress = progress;
+        }
+
+        @Nonnull
+        CompletableFuture<Void> start() {
+            if (chunks.isEmpty()) {
+                future.complete(null);
+            }
+            for (int i = 0; i < IN_FLIGHT_CHUNKS && next < chunks.size(); i++) {
+                loadNext();
+            }
+            return future;
+        }
+
+        private void loadNext() {
+            int[] coords = chunks.get(next++);
+            world.getChunkAtAsync(coords[0], coords[1]).whenComplete((chunk, ex) -> {
+                if (ex != null) {
+                    future.completeExceptionally(ex);
+                    return;
+                }
+
+                // whenComplete drops exceptions of the callback, the scan would never finish
+                try {
+                    loaded(chunk);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+
+        private void loaded(@Nonnull Chunk chunk) {
+            // skull snapshots are copies, they can be read on other threads. chests are copied here, their inventory
+            // is shared with the block
+            List<Skull> skulls = new ArrayList<>();
+            for (BlockState state : chunk.getTileEntities()) {
+                if (state.getType() == Material.PLAYER_HEAD && state instanceof Skull) {
+                    skulls.add((Skull) state);
+                } else if (state.getType() == Material.CHEST && state instanceof Chest) {
+                    chestMarkers.add(toChestMarker((Chest) state));
+                }
+            }
+            if (next < chunks.size() && !future.isDone()) {
+                loadNext();
+            }
+
+            ForkJoinPool.commonPool().execute(() -> {
+                try {
+                    extract(skulls);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                int done = scanned.incrementAndGet();
+                Bukkit.getScheduler().runTask(voxelGamesLib, () -> {
+                    try {
+                        scanned(done);
+                    } catch (Exception e) {
+                        future.completeExceptionally(e);
                     }
+                });
+            });
+        }
+
+        private void extract(@Nonnull List<Skull> skulls) {
+            for (Skull skull : skulls) {
+                Marker marker = toMarker(skull);
+                if (marker != null) {
+                    markers.add(marker);
                 }
             }
         }
 
-        map.setMarkers(markers);
-        map.setChestMarkers(chestMarkers);
+        private void scanned(int done) {
+            if (future.isDone()) {
+                return;
+            }
+
+            // report every 10%
+            int percent = done * 10 / chunks.size();
+            if (progress != null && (percent != lastReported || done == chunks.size())) {
+                lastReported = percent;
+                progress.accept(done, chunks.size());
+            }
+
+            if (done == chunks.size()) {
+                future.complete(null);
+            }
+        }
     }
 
     private void handleSkull(@Nonnull Skull skull) {
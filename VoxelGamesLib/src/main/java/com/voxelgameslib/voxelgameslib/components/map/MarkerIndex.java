@@ -0,0 +1,67 @@
+package com.voxelgameslib.voxelgameslib.components.map;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.voxelgameslib.voxelgameslib.internal.math.KdTree;
+import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
+
+/**
+ * All markers of one type on a map, with a {@link KdTree} for lookups by position
+ */
+public class MarkerIndex {
+
+    private final List<Marker> markers;
+    private final List<Vector3D> locations;
+    private final KdTree<Marker> tree;
+
+    MarkerIndex(@Nonnull List<Marker> markers) {
+        this.markers = Collections.unmodifiableList(new ArrayList<>(markers));
+        List<Vector3D> locations = new ArrayList<>(markers.size());
+        markers.forEach(marker -> locations.add(marker.getLoc()));
+        this.locations = Collections.unmodifiableList(locations);
+        this.tree = new KdTree<>(locations, this.markers);
+    }
+
+    /**
+     * @return the markers in this index
+     */
+    @Nonnull
+    public List<Marker> getMarkers() {
+        return markers;
+    }
+
+    /**
+     * @return the locations of the markers in this index, in the same order as {@link #getMarkers()}
+     */
+    @Nonnull
+    public List<Vector3D> getLocations() {
+        return locations;
+    }
+
+    /**
+     * @param location the location to search from
+     * @return the marker closest to that location, null if there are no markers
+     */
+    @Nullable
+    public Marker getNearest(@Nonnull Vector3D location) {
+        return tree.nearest(location);
+    }
+
+    /**
+     * @return the number of markers in this index
+     */
+    public int size() {
+        return markers.size();
+    }
+
+    /**
+     * @return if there are no markers of this type
+     */
+    public boolean isEmpty() {
+        return markers.isEmpty();
+    }
+}
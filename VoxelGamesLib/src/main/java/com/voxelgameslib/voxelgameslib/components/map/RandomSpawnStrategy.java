@@ -0,0 +1,19 @@
+package com.voxelgameslib.voxelgameslib.components.map;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
+
+/**
+ * Selects a random spawn, ignores the players
+ */
+public class RandomSpawnStrategy implements SpawnStrategy {
+
+    @Nonnull
+    @Override
+    public Vector3D select(@Nonnull List<Vector3D> spawns, @Nonnull List<Vector3D> players) {
+        return spawns.get(ThreadLocalRandom.current().nextInt(spawns.size()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.voxelgameslib.voxelgameslib.components.map;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
+
+/**
+ * Decides which of the spawns of a map a player should spawn at
+ */
+public interface SpawnStrategy {
+
+    /**
+     * Selects a spawn
+     *
+     * @param spawns  the possible spawns, never empty
+     * @param players the locations of the players that are alive, not including the player that spawns
+     * @return the selected spawn, one of the given spawns
+     */
+    @Nonnull
+    Vector3D select(@Nonnull List<Vector3D> spawns, @Nonnull List<Vector3D> players);
+}
@@ -0,0 +1,85 @@
+package com.voxelgameslib.voxelgameslib.components.map;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.internal.math.KdTree;
+import com.voxelgameslib.voxelgameslib.internal.math.Vector3D;
+
+/**
+ * Selects the spawn that is the farthest away from the closest living player. The last few selected spawns are
+ * skipped (as long as there are other spawns), so players that spawn right after each other don't end up on the same
+ * spot.
+ */
+public class SpreadSpawnStrategy implements SpawnStrategy {
+
+    private final int memory;
+    private final ArrayDeque<Vector3D> recent = new ArrayDeque<>();
+    private final Set<Vector3D> recentSet = new HashSet<>();
+
+    /**
+     * @param memory how many of the last selected spawns should be skipped
+     */
+    public SpreadSpawnStrategy(int memory) {
+        this.memory = Math.max(0, memory);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Vector3D select(@Nonnull List<Vector3D> spawns, @Nonnull List<Vector3D> players) {
+        // nearest player lookups are O(log players) instead of O(players)
+        KdTree<Vector3D> tree = new KdTree<>(players, players);
+        boolean skipRecent = spawns.size() > recentSet.size();
+
+        Vector3D best = null;
+        double bestDistance = -1;
+        int ties = 0;
+        for (Vector3D spawn : spawns) {
+            if (skipRecent && recentSet.contains(spawn)) {
+                continue;
+            }
+
+            double distance = tree.nearestDistanceSquared(spawn);
+            if (distance > bestDistance) {
+                best = spawn;
+                bestDistance = distance;
+                ties = 1;
+            } else if (distance == bestDistance && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                // pick a random one of equally good spawns (e.g. when nobody is alive)
+                best = spawn;
+            }
+        }
+
+        if (best == null) {
+            best = spawns.get(ThreadLocalRandom.current().nextInt(spawns.size()));
+        }
+        remember(best, spawns.size());
+        return best;
+    }
+
+    private void remember(@Nonnull Vector3D spawn, int spawns) {
+        if (!recentSet.add(spawn)) {
+            recent.remove(spawn);
+        }
+        recent.addLast(spawn);
+
+        // always leave at least one spawn to choose from
+        int limit = Math.min(memory, spawns - 1);
+        while (recent.size() > Math.max(0, limit)) {
+            recentSet.remove(recent.removeFirst());
+        }
+    }
+
+    /**
+     * @return the spawns that will be skipped for now
+     */
+    @Nonnull
+    public Set<Vector3D> getRecent() {
+        return Collections.unmodifiableSet(new HashSet<>(recent));
+    }
+}
@@ -0,0 +1,49 @@
+package com.voxelgameslib.voxelgameslib.components.matchmaking;
+
+import com.google.gson.annotations.Expose;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores matchmaking related config values
+ */
+public class MatchmakingConfig {
+
+    /**
+     * How many players are matched into one game, if the game mode has no entry in matchSizes and no game definition
+     */
+    @Expose
+    public int defaultMatchSize = 2;
+    /**
+     * How many players are matched into one game, by game mode name. Modes that are not listed use the min players of
+     * their game definition.
+     */
+    @Expose
+    public Map<String, Integer> matchSizes = new HashMap<>();
+    /**
+     * The rating range that is put into one bucket
+     */
+    @Expose
+    public double bucketSize = 1.0;
+    /**
+     * The rating difference players accept when they just joined the queue
+     */
+    @Expose
+    public double initialWindow = 2.0;
+    /**
+     * How much the accepted rating difference grows per second in the queue
+     */
+    @Expose
+    public double windowGrowthPerSecond = 0.5;
+    /**
+     * The max rating difference players accept
+     */
+    @Expose
+    public double maxWindow = 25.0;
+    /**
+     * The time (in microseconds) all queues together are allowed to use every tick
+     */
+    @Expose
+    public int tickBudget = 1000;
+}
@@ -1,26 +1,206 @@
 package com.voxelgameslib.voxelgameslib.components.matchmaking;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.voxelgameslib.voxelgameslib.api.exception.VoxelGameLibException;
+import com.voxelgameslib.voxelgameslib.api.game.Game;
+import com.voxelgameslib.voxelgameslib.api.game.GameDefinition;
+import com.voxelgameslib.voxelgameslib.api.game.GameHandler;
 import com.voxelgameslib.voxelgameslib.api.game.GameMode;
+import com.voxelgameslib.voxelgameslib.api.tick.TickHandler;
+import com.voxelgameslib.voxelgameslib.api.tick.Tickable;
+import com.voxelgameslib.voxelgameslib.components.user.User;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
+import com.voxelgameslib.voxelgameslib.internal.lang.Lang;
+import com.voxelgameslib.voxelgameslib.internal.lang.LangKey;
 
+/**
+ * Handles the matchmaking queues. Users queue up for a {@link GameMode}, ranked or unranked, and every tick the queues
+ * try to build matches within the configured time budget. Once a match is found a new game is started for it.
+ */
 @Singleton
 public class MatchmakingHandler implements Handler {
 
+    private static final Logger log = Logger.getLogger(MatchmakingHandler.class.getName());
+
+    @Inject
+    private GameHandler gameHandler;
+    @Inject
+    private TickHandler tickHandler;
+    @Inject
+    private GlobalConfig config;
+
     private Map<GameMode, Queue> queues;
+    private Map<GameMode, Queue> rankedQueues;
+    private Tickable ticker;
 
     @Override
     public void enable() {
         queues = new HashMap<>();
-        //TODO match making
+        rankedQueues = new HashMap<>();
+        ticker = new Tickable() {
+            @Override
+            public void enable() {
+
+            }
+
+            @Override
+            public void disable() {
+
+            }
+
+            @Override
+            public void tick() {
+                MatchmakingHandler.this.tick();
+            }
+        };
+        tickHandler.registerTickable(ticker);
     }
 
     @Override
     public void disable() {
+        tickHandler.end(ticker);
         queues.clear();
         queues = null;
+        rankedQueues.clear();
+        rankedQueues = null;
+    }
+
+    /**
+     * Gets the queue for that mode, creates it if it doesn't exist yet
+     *
+     * @param mode   the mode
+     * @param ranked if the ranked or the unranked queue should be returned
+     * @return the queue
+     */
+    @Nonnull
+    public Queue getQueue(@Nonnull GameMode mode, boolean ranked) {
+        return (ranked ? rankedQueues : queues).computeIfAbsent(mode, (key) -> {
+            Integer matchSize = config.matchmaking.matchSizes.get(mode.getName());
+            if (matchSize == null) {
+                // a game can start with its min players, waiting for more would only make users wait longer
+                matchSize = gameHandler.getGameDefinition(mode).map(GameDefinition::getMinPlayers)
+                        .filter(min -> min > 0).orElse(config.matchmaking.defaultMatchSize);
+            }
+            return new Queue(mode, ranked, matchSize, config.matchmaking);
+        });
+    }
+
+    /**
+     * Adds the user to the queue of that mode. Leaves all other queues first.
+     *
+     * @param user   the user
+     * @param mode   the mode the user wants to play
+     * @param ranked if the user wants to play ranked
+     * @return false if the user was already waiting in that queue
+     */
+    public boolean queue(@Nonnull User user, @Nonnull GameMode mode, boolean ranked) {
+        Queue queue = getQueue(mode, ranked);
+        if (queue.contains(user.getUuid())) {
+            return false;
+        }
+
+        leaveQueues(user.getUuid());
+        return queue.add(user, System.currentTimeMillis());
+    }
+
+    /**
+     * Removes the user from every queue
+     *
+     * @param id the id of the user
+     * @return true if the user was waiting in a queue
+     */
+    public boolean leaveQueues(@Nonnull UUID id) {
+        boolean removed = false;
+        for (Queue queue : queues.values()) {
+            removed |= queue.remove(id);
+        }
+        for (Queue queue : rankedQueues.values()) {
+            removed |= queue.remove(id);
+        }
+        return removed;
+    }
+
+    /**
+     * @param id the id of the user
+     * @return the queue the user is waiting in, if present
+     */
+    @Nonnull
+    public Optional<Queue> getQueue(@Nonnull UUID id) {
+        Optional<Queue> queue = queues.values().stream().filter(q -> q.contains(id)).findAny();
+        if (queue.isPresent()) {
+            return queue;
+        }
+        return rankedQueues.values().stream().filter(q -> q.contains(id)).findAny();
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long budget = TimeUnit.MICROSECONDS.toNanos(config.matchmaking.tickBudget);
+
+        List<Queue> all = new ArrayList<>(queues.values());
+        all.addAll(rankedQueues.values());
+        for (Queue queue : all) {
+            long remaining = budget - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                break;
+            }
+
+            for (List<QueueEntry> match : queue.tick(now, remaining)) {
+                startMatch(queue, match);
+            }
+        }
+    }
+
+    private void startMatch(@Nonnull Queue queue, @Nonnull List<QueueEntry> match) {
+        List<QueueEntry> available = new ArrayList<>(match.size());
+        for (QueueEntry entry : match) {
+            User user = entry.getUser();
+            if (user.getPlayer() == null || !user.getPlayer().isOnline()) {
+                continue;
+            }
+            if (gameHandler.getGames(user.getUuid(), false).stream()
+                    .anyMatch(game -> !game.equals(gameHandler.getDefaultGame()))) {
+                continue;
+            }
+            available.add(entry);
+        }
+
+        if (available.size() != match.size()) {
+            // somebody is gone, requeue the rest without resetting their wait time
+            available.forEach(queue::requeue);
+            return;
+        }
+
+        List<User> users = available.stream().map(QueueEntry::getUser).collect(Collectors.toList());
+
+        Game game;
+        try {
+            game = gameHandler.startGame(queue.getGameMode());
+        } catch (VoxelGameLibException ex) {
+            log.log(Level.WARNING, "Could not start game for match " + users, ex);
+            Lang.msg(users, LangKey.GAME_COULD_NOT_START);
+            return;
+        }
+
+        for (User user : users) {
+            gameHandler.getGames(user.getUuid(), true).forEach(g -> g.leave(user, false));
+            Lang.msg(user, LangKey.GAME_QUEUE_MATCH_FOUND, queue.getGameMode().getName());
+            game.join(user);
+        }
     }
 }
@@ -1,13 +1,232 @@
 package com.voxelgameslib.voxelgameslib.components.matchmaking;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
 import com.voxelgameslib.voxelgameslib.api.game.GameMode;
+import com.voxelgameslib.voxelgameslib.components.user.User;
 
+/**
+ * A matchmaking queue for one {@link GameMode}.<br>
+ * Ranked queues put users into buckets by the mean of their TrueSkill rating. The rating difference a user accepts
+ * starts small and grows the longer they wait. Matching is incremental: every tick a few users are picked (round robin)
+ * and we look for partners in the neighbouring buckets, until the time budget is used up. Everybody in a match needs to
+ * accept the rating of everybody else. Unranked queues ignore the rating and match users in the order they joined.
+ */
 public class Queue {
 
     private GameMode gameMode;
     private boolean ranked;
+    private int matchSize;
+    private MatchmakingConfig config;
+
+    private final Map<UUID, QueueEntry> entries = new HashMap<>();
+    private final Map<Integer, LinkedHashMap<UUID, QueueEntry>> buckets = new HashMap<>();
+    // entries that left the queue are skipped lazily when they come up, or dropped once they are the majority
+    private final ArrayDeque<QueueEntry> scanOrder = new ArrayDeque<>();
+
+    public Queue(@Nonnull GameMode gameMode, boolean ranked, int matchSize, @Nonnull MatchmakingConfig config) {
+        this.gameMode = gameMode;
+        this.ranked = ranked;
+        this.matchSize = Math.max(1, matchSize);
+        this.config = config;
+    }
+
+    /**
+     * Adds a user to this queue
+     *
+     * @param user the user to add
+     * @param now  the current time in ms
+     * @return false if the user was already queued
+     */
+    public boolean add(@Nonnull User user, long now) {
+        if (entries.containsKey(user.getUuid())) {
+            return false;
+        }
+
+        double rating = ranked ? user.getRating(gameMode).getMean() : 0;
+        QueueEntry entry = new QueueEntry(user, rating, (int) Math.floor(rating / config.bucketSize), now);
+        entries.put(user.getUuid(), entry);
+        buckets.computeIfAbsent(entry.getBucket(), (key) -> new LinkedHashMap<>()).put(user.getUuid(), entry);
+        scanOrder.add(entry);
+        return true;
+    }
+
+    /**
+     * Puts a user that was matched back into the queue, with the time they originally joined, so that their window
+     * doesn't start small again
+     *
+     * @param entry the entry the user was matched with
+     * @return false if the user was already queued again
+     */
+    public boolean requeue(@Nonnull QueueEntry entry) {
+        return add(entry.getUser(), entry.getQueuedAt());
+    }
+
+    /**
+     * Removes a user from this queue
+     *
+     * @param id the id of the user
+     * @return false if the user wasn't queued
+     */
+    public boolean remove(@Nonnull UUID id) {
+        QueueEntry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+
+        LinkedHashMap<UUID, QueueEntry> bucket = buckets.get(entry.getBucket());
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+            buckets.remove(entry.getBucket());
+        }
+
+        // tick() only skips them while it has enough users for a match, so they would pile up in small queues
+        if (scanOrder.size() > entries.size() * 2 + 16) {
+            scanOrder.removeIf(stale -> entries.get(stale.getUser().getUuid()) != stale);
+        }
+        return true;
+    }
+
+    /**
+     * @param id the id of the user
+     * @return if that user is waiting in this queue
+     */
+    public boolean contains(@Nonnull UUID id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * @return the amount of waiting users
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Tries to find matches until every waiting user was looked at once or the budget is used up. Matched users are
+     * removed from the queue.
+     *
+     * @param now         the current time in ms
+     * @param budgetNanos the time this queue is allowed to spend
+     * @return the entries of every match that was found
+     */
+    @Nonnull
+    public List<List<QueueEntry>> tick(long now, long budgetNanos) {
+        if (entries.size() < matchSize) {
+            return Collections.emptyList();
+        }
+
+        List<List<QueueEntry>> matches = new ArrayList<>();
+        long start = System.nanoTime();
+        int seeds = scanOrder.size();
+        for (int i = 0; i < seeds && entries.size() >= matchSize; i++) {
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+
+            QueueEntry seed = scanOrder.poll();
+            if (seed == null) {
+                break;
+            }
+            if (entries.get(seed.getUser().getUuid()) != seed) {
+                // left the queue
+                continue;
+            }
+
+            List<QueueEntry> match = findMatch(seed, now);
+            if (match == null) {
+                scanOrder.add(seed);
+                continue;
+            }
+
+            match.forEach(entry -> remove(entry.getUser().getUuid()));
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    @Nullable
+    private List<QueueEntry> findMatch(@Nonnull QueueEntry seed, long now) {
+        List<QueueEntry> match = new ArrayList<>(matchSize);
+        match.add(seed);
+        if (matchSize == 1) {
+            return match;
+        }
+
+        double window = getWindow(seed, now);
+        int range = ranked ? (int) Math.ceil(window / config.bucketSize) : 0;
+        // nearest buckets first
+        for (int distance = 0; distance <= range; distance++) {
+            if (collect(seed, seed.getBucket() - distance, now, match)) {
+                return match;
+            }
+            if (distance != 0 && collect(seed, seed.getBucket() + distance, now, match)) {
+                return match;
+            }
+        }
+        return null;
+    }
 
-    public Queue() {
+    /**
+     * @return true if the match is complete
+     */
+    private boolean collect(@Nonnull QueueEntry seed, int bucketIndex, long now, @Nonnull List<QueueEntry> match) {
+        LinkedHashMap<UUID, QueueEntry> bucket = buckets.get(bucketIndex);
+        if (bucket == null) {
+            return false;
+        }
+
+        for (QueueEntry candidate : bucket.values()) {
+            if (candidate == seed) {
+                continue;
+            }
+            if (accepts(candidate, match, now)) {
+                match.add(candidate);
+                if (match.size() == matchSize) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the candidate and everybody in the match accept each other
+     */
+    private boolean accepts(@Nonnull QueueEntry candidate, @Nonnull List<QueueEntry> match, long now) {
+        if (!ranked) {
+            return true;
+        }
+        double window = getWindow(candidate, now);
+        for (QueueEntry entry : match) {
+            double difference = Math.abs(candidate.getRating() - entry.getRating());
+            if (difference > window || difference > getWindow(entry, now)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param entry the waiting user
+     * @param now   the current time in ms
+     * @return the rating difference the user accepts right now
+     */
+    public double getWindow(@Nonnull QueueEntry entry, long now) {
+        if (!ranked) {
+            return Double.MAX_VALUE;
+        }
+        double waited = (now - entry.getQueuedAt()) / 1000D;
+        return Math.min(config.initialWindow + config.windowGrowthPerSecond * waited, config.maxWindow);
     }
 
     public GameMode getGameMode() {
@@ -18,6 +237,10 @@ public class Queue {
         return this.ranked;
     }
 
+    public int getMatchSize() {
+        return this.matchSize;
+    }
+
     public void setGameMode(GameMode gameMode) {
         this.gameMode = gameMode;
     }
@@ -26,6 +249,10 @@ public class Queue {
         this.ranked = ranked;
     }
 
+    public void setMatchSize(int matchSize) {
+        this.matchSize = Math.max(1, matchSize);
+    }
+
     public boolean equals(Object o) {
         if (o == this) return true;
         if (!(o instanceof Queue)) return false;
@@ -52,6 +279,6 @@ public class Queue {
     }
 
     public String toString() {
-        return "Queue(gameMode=" + this.getGameMode() + ", ranked=" + this.isRanked() + ")";
+        return "Queue(gameMode=" + this.getGameMode() + ", ranked=" + this.isRanked() + ", matchSize=" + this.getMatchSize() + ", size=" + this.size() + ")";
     }
 }
@@ -0,0 +1,49 @@
+package com.voxelgameslib.voxelgameslib.components.matchmaking;
+
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.components.user.User;
+
+/**
+ * A user waiting in a {@link Queue}
+ */
+public class QueueEntry {
+
+    private final User user;
+    private final double rating;
+    private final int bucket;
+    private final long queuedAt;
+
+    QueueEntry(@Nonnull User user, double rating, int bucket, long queuedAt) {
+        this.user = user;
+        this.rating = rating;
+        this.bucket = bucket;
+        this.queuedAt = queuedAt;
+    }
+
+    /**
+     * @return the user that is waiting
+     */
+    @Nonnull
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * @return the rating the user is matched by, always 0 for unranked queues
+     */
+    public double getRating() {
+        return rating;
+    }
+
+    int getBucket() {
+        return bucket;
+    }
+
+    /**
+     * @return the time (in ms) the user joined the queue
+     */
+    public long getQueuedAt() {
+        return queuedAt;
+    }
+}
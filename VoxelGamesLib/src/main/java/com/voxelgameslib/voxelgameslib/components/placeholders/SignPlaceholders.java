@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
@@ -25,6 +26,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.voxelgameslib.voxelgameslib.VoxelGamesLib;
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
 import com.voxelgameslib.voxelgameslib.api.stats.StatsHandler;
 import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
 import com.voxelgameslib.voxelgameslib.components.user.User;
@@ -97,8 +99,30 @@ public class SignPlaceholders implements Listener {
                 }
             }
 
-            List<Pair<Component, Double>> list = statsHandler.getTopWithName(type.get(), Math.max(index, 5));
+            Optional<List<Pair<Component, Double>>> top = statsHandler.peekTopWithName(type.get(), Math.max(index + 1, 5));
+            if (!top.isPresent()) {
+                // still loading, the update task will send the sign again
+                return new Component[]{
+                        Lang.trans(type.get().getDisplayName(), user.getLocale()),
+                        TextComponent.of("#" + (index + 1)),
+                        TextComponent.of(""),
+                        TextComponent.of("...")
+                };
+            }
+
+            List<Pair<Component, Double>> list = top.get();
             if (list.size() < index + 1) {
+                // nobody on that place, show where the viewer is instead
+                OptionalInt rank = statsHandler.getRank(type.get(), user.getUuid());
+                StatInstance stat = user.getUserData().getStats().get(type.get());
+                if (rank.isPresent() && stat != null) {
+                    return new Component[]{
+                            Lang.trans(type.get().getDisplayName(), user.getLocale()),
+                            TextComponent.of("#" + rank.getAsInt()),
+                            TextComponent.of(type.get().formatShort(stat.getVal())),
+                            user.getDisplayName()
+                    };
+                }
                 return new Component[]{
                         Lang.trans(type.get().getDisplayName(), user.getLocale()),
                         TextComponent.of("#" + (index + 1)),
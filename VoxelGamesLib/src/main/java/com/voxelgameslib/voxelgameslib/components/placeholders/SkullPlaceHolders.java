@@ -86,8 +86,9 @@ public class SkullPlaceHolders implements Listener {
                 }
             }
 
-            List<Pair<UUID, Double>> list = statsHandler.getTopWithUUID(type.get(), Math.max(index, 5));
-            if (list.size() < index + 1) {
+            // never wait for the database on the packet thread, the skull is updated once it is loaded
+            List<Pair<UUID, Double>> list = statsHandler.peekTopWithUUID(type.get(), Math.max(index + 1, 5)).orElse(null);
+            if (list == null || list.size() < index + 1) {
                 return null;
             }
 
@@ -20,6 +20,7 @@ import com.voxelgameslib.voxelgameslib.api.role.Permission;
 import com.voxelgameslib.voxelgameslib.api.role.Role;
 import com.voxelgameslib.voxelgameslib.components.chat.ChatChannel;
 import com.voxelgameslib.voxelgameslib.components.chat.ChatHandler;
+import com.voxelgameslib.voxelgameslib.components.chat.PreparedMessage;
 import com.voxelgameslib.voxelgameslib.components.elo.RatingWrapper;
 import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.lang.Locale;
@@ -70,6 +71,16 @@ public class GamePlayer implements User {
         ChatUtil.sendMessage(this, message);
     }
 
+    @Override
+    public void sendMessage(@Nonnull PreparedMessage message) {
+        Object packet = message.getPacket();
+        if (packet != null) {
+            ChatUtil.sendPacket(this, packet);
+        } else {
+            ChatUtil.sendJson(this, message.getJson());
+        }
+    }
+
     @Override
     public boolean hasPermission(@Nonnull Permission perm) {
         if (config.useRoleSystem) {
@@ -158,7 +169,7 @@ public class GamePlayer implements User {
     @Override
     public void saveRating(@Nonnull GameMode mode, @Nonnull Rating rating) {
         userData.getRatings().put(mode.getName(), new RatingWrapper(rating));
-        persistenceHandler.getProvider().saveUser(getUserData());
+        persistenceHandler.saveUser(getUserData());
     }
 
     @Override
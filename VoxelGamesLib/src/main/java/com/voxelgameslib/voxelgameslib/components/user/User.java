@@ -11,6 +11,7 @@ import com.voxelgameslib.voxelgameslib.api.game.GameMode;
 import com.voxelgameslib.voxelgameslib.api.role.Permission;
 import com.voxelgameslib.voxelgameslib.api.role.Role;
 import com.voxelgameslib.voxelgameslib.components.chat.ChatChannel;
+import com.voxelgameslib.voxelgameslib.components.chat.PreparedMessage;
 import com.voxelgameslib.voxelgameslib.components.elo.RatingWrapper;
 import com.voxelgameslib.voxelgameslib.internal.lang.Locale;
 import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
@@ -40,6 +41,16 @@ public interface User extends IPlayer, ISupportPartialPlay, ISupportPartialUpdat
      */
     void sendMessage(@Nonnull Component message);
 
+    /**
+     * Send a message that is shared with other recipients to this user. Implementations should use the json of the
+     * message, so it isn't serialized again for every recipient.
+     *
+     * @param message the message to be send
+     */
+    default void sendMessage(@Nonnull PreparedMessage message) {
+        sendMessage(message.getComponent());
+    }
+
     /**
      * checks if that user has the desired permission.
      *
@@ -4,18 +4,23 @@ import com.google.inject.Injector;
 import com.google.inject.Singleton;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
 import com.voxelgameslib.voxelgameslib.api.exception.UserException;
 import com.voxelgameslib.voxelgameslib.api.game.GameHandler;
+import com.voxelgameslib.voxelgameslib.api.stats.StatsHandler;
 import com.voxelgameslib.voxelgameslib.components.chat.ChatHandler;
+import com.voxelgameslib.voxelgameslib.components.matchmaking.MatchmakingHandler;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
 import com.voxelgameslib.voxelgameslib.internal.persistence.PersistenceHandler;
 import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
@@ -34,18 +39,24 @@ public class UserHandler implements Handler {
     private Injector injector;
     @Inject
     private ChatHandler chatHandler;
+    @Inject
+    private MatchmakingHandler matchmakingHandler;
+    @Inject
+    private StatsHandler statsHandler;
 
     private Map<UUID, User> users;
     private Map<UUID, User> tempData;
 
     @Override
     public void enable() {
-        users = new HashMap<>();
+        users = new ConcurrentHashMap<>();
         tempData = new ConcurrentHashMap<>();
     }
 
     @Override
     public void disable() {
+        // persistence is disabled last, it will flush these
+        users.values().forEach(user -> persistenceHandler.saveUser(user.getUserData()));
         users.clear();
         tempData.clear();
     }
@@ -76,6 +87,7 @@ public class UserHandler implements Handler {
 
 
         users.put(user.getUuid(), user);
+        statsHandler.trackUser(user);
         log.info("Applied data for user " + user.getUuid() + " (" + user.getRole().getName() + " " + user.getRawDisplayName() + ")");
     }
 
@@ -85,7 +97,8 @@ public class UserHandler implements Handler {
      * @param id the uuid of the user that logged out
      */
     public void logout(@Nonnull UUID id) {
-        getUser(id).ifPresent(u -> persistenceHandler.getProvider().saveUser(u.getUserData()));
+        getUser(id).ifPresent(u -> persistenceHandler.saveUser(u.getUserData()));
+        matchmakingHandler.leaveQueues(id);
 
         users.remove(id);
         tempData.remove(id);
@@ -111,7 +124,17 @@ public class UserHandler implements Handler {
     public boolean login(@Nonnull UUID uniqueId) {
         log.info("Loading data for user " + uniqueId);
 
-        Optional<UserData> data = persistenceHandler.getProvider().loadUser(uniqueId);
+        Optional<UserData> data;
+        try {
+            // we are on the async login thread, waiting is fine here
+            data = persistenceHandler.loadUser(uniqueId).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException ex) {
+            log.log(Level.WARNING, "Could not load data for user " + uniqueId, ex);
+            return false;
+        }
         if (data.isPresent()) {
             // existing user
             UserData userData = data.get();
@@ -0,0 +1,235 @@
+package com.voxelgameslib.voxelgameslib.components.world;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.Expose;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.voxelgameslib.voxelgameslib.api.exception.MapException;
+import com.voxelgameslib.voxelgameslib.components.map.Map;
+import com.voxelgameslib.voxelgameslib.components.map.MapHandler;
+import com.voxelgameslib.voxelgameslib.components.map.MapInfo;
+
+/**
+ * Knows the config of every map in the world repo. The configs are read from the zips once and then saved into an
+ * index file together with size and modification time of the zip, so after a restart only changed zips need to be
+ * opened.
+ */
+@Singleton
+public class MapCatalog {
+
+    private static final Logger log = Logger.getLogger(MapCatalog.class.getName());
+
+    @Inject
+    @Named("WorldsFolder")
+    private File worldsFolder;
+    @Inject
+    @Named("DataFolder")
+    private File dataFolder;
+    @Inject
+    private Gson gson;
+    @Inject
+    private MapHandler mapHandler;
+
+    private final java.util.Map<String, Entry> entries = new HashMap<>();
+    private final java.util.Map<String, Map> maps = new HashMap<>();
+
+    /**
+     * (Re)Builds the catalog for the given maps. Reuses the index file for every zip that didn't change.
+     *
+     * @param mapInfos the maps that should be in the catalog
+     */
+    public synchronized void build(@Nonnull Collection<MapInfo> mapInfos) {
+        java.util.Map<String, Entry> index = readIndex();
+        entries.clear();
+        maps.clear();
+
+        int read = 0;
+        for (MapInfo info : mapInfos) {
+            String key = key(info.getWorldName());
+            File zip = new File(worldsFolder, info.getWorldName() + ".zip");
+            if (!zip.exists()) {
+                log.warning("Could not find map " + zip.getName() + " in the world repo");
+                continue;
+            }
+
+            Entry entry = index.get(key);
+            if (entry == null || !entry.matches(zip)) {
+                try {
+                    entry = new Entry(info.getWorldName(), readConfig(zip), zip);
+                    read++;
+                } catch (MapException ex) {
+                    log.log(Level.WARNING, "Could not add map " + info.getWorldName() + " to the catalog", ex);
+                    continue;
+                }
+            }
+
+            entry.map.initMarkers(mapHandler);
+            entries.put(key, entry);
+            maps.put(key, entry.map);
+        }
+
+        if (read > 0 || index.size() != entries.size()) {
+            writeIndex();
+        }
+        log.info("Built map catalog with " + maps.size() + " maps, read " + read + " map configs from zips");
+    }
+
+    /**
+     * Puts a map (that was just saved into the world repo) into the catalog
+     *
+     * @param map the map to add
+     */
+    public synchronized void update(@Nonnull Map map) {
+        File zip = new File(worldsFolder, map.getWorldName() + ".zip");
+        Entry entry = new Entry(map.getWorldName(), map, zip);
+        entries.put(key(map.getWorldName()), entry);
+        maps.put(key(map.getWorldName()), map);
+        writeIndex();
+    }
+
+    /**
+     * Reads the config of a map that is not in the catalog (yet) from its zip and adds it
+     *
+     * @param worldName the name of the map world
+     * @return the map, empty if there is no zip for it
+     * @throws MapException if the zip has no readable map config
+     */
+    @Nonnull
+    public synchronized Optional<Map> read(@Nonnull String worldName) {
+        File zip = new File(worldsFolder, worldName + ".zip");
+        if (!zip.exists()) {
+            return Optional.empty();
+        }
+
+        Entry entry = new Entry(worldName, readConfig(zip), zip);
+        entry.map.initMarkers(mapHandler);
+        entries.put(key(worldName), entry);
+        maps.put(key(worldName), entry.map);
+        writeIndex();
+        log.info("Added map " + worldName + " to the catalog");
+        return Optional.of(entry.map);
+    }
+
+    /**
+     * @param worldName the name of the map world, ignoring case
+     * @return the map, if present in the catalog
+     */
+    @Nonnull
+    public synchronized Optional<Map> getMap(@Nonnull String worldName) {
+        return Optional.ofNullable(maps.get(key(worldName)));
+    }
+
+    @Nonnull
+    private Map readConfig(@Nonnull File zip) {
+        try {
+            ZipFile zipFile = new ZipFile(zip);
+            for (FileHeader header : (List<FileHeader>) zipFile.getFileHeaders()) {
+                if (header.getFileName().endsWith("config.json")) {
+                    try (InputStream stream = zipFile.getInputStream(header)) {
+                        return gson.fromJson(new JsonReader(new InputStreamReader(stream)), Map.class);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new MapException("Error while trying to load map config " + zip.getName(), e);
+        }
+        throw new MapException("Could not load map config for map " + zip.getName()
+                + ". Fileheader was null. Does it has a map.json?");
+    }
+
+    @Nonnull
+    private java.util.Map<String, Entry> readIndex() {
+        java.util.Map<String, Entry> index = new HashMap<>();
+        File file = getIndexFile();
+        if (!file.exists()) {
+            return index;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            List<Entry> list = gson.fromJson(reader, new TypeToken<List<Entry>>() {
+            }.getType());
+            if (list != null) {
+                list.stream().filter(entry -> entry.worldName != null && entry.map != null)
+                        .forEach(entry -> index.put(key(entry.worldName), entry));
+            }
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Could not read map index " + file.getAbsolutePath() + ", rebuilding it", e);
+        }
+        return index;
+    }
+
+    private void writeIndex() {
+        File file = getIndexFile();
+        if (!file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            gson.toJson(new ArrayList<>(entries.values()), writer);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Could not save map index " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Nonnull
+    private File getIndexFile() {
+        return new File(dataFolder, "maps.json");
+    }
+
+    @Nonnull
+    private static String key(@Nullable String worldName) {
+        return worldName == null ? "" : worldName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A map config and the version of the zip it was read from
+     */
+    private static class Entry {
+
+        @Expose
+        private String worldName;
+        @Expose
+        private Map map;
+        @Expose
+        private long lastModified;
+        @Expose
+        private long length;
+
+        Entry(@Nonnull String worldName, @Nonnull Map map, @Nonnull File zip) {
+            this.worldName = worldName;
+            this.map = map;
+            this.lastModified = zip.lastModified();
+            this.length = zip.length();
+        }
+
+        boolean matches(@Nonnull File zip) {
+            return zip.lastModified() == lastModified && zip.length() == length;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.voxelgameslib.voxelgameslib.components.world;
+
+import com.comphenix.protocol.wrappers.nbt.NbtCompound;
+import com.comphenix.protocol.wrappers.nbt.NbtList;
+import com.comphenix.protocol.wrappers.nbt.io.NbtBinarySerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.voxelgameslib.voxelgameslib.api.exception.WorldException;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.generator.ChunkGenerator;
+
+/**
+ * The blocks of a map, decoded once from its region files and kept in memory. Immutable, so one template can serve
+ * the chunks of any number of game worlds (see {@link TemplateChunkGenerator}).<br>
+ * Only block states are kept, tile entities (sign texts, chest contents etc), entities and biomes are not.
+ */
+public class MapTemplate {
+
+    private static final int SECTOR_SIZE = 4096;
+    private static final Set<String> AIR = new HashSet<>(Arrays.asList("minecraft:air", "minecraft:cave_air", "minecraft:void_air"));
+
+    private final String name;
+    private final Map<Long, Section[]> chunks;
+    private final long blocks;
+
+    private MapTemplate(@Nonnull String name, @Nonnull Map<Long, Section[]> chunks, long blocks) {
+        this.name = name;
+        this.chunks = Collections.unmodifiableMap(chunks);
+        this.blocks = blocks;
+    }
+
+    /**
+     * Reads all region files of a world folder. Takes a while for bigger maps, so don't call this on the main thread.
+     *
+     * @param name        the name of the template
+     * @param worldFolder the world folder, needs to contain a region folder
+     * @return the decoded template
+     * @throws WorldException if a region file could not be read
+     */
+    @Nonnull
+    public static MapTemplate load(@Nonnull String name, @Nonnull File worldFolder) {
+        File[] regions = new File(worldFolder, "region").listFiles((dir, file) -> file.endsWith(".mca"));
+        Map<Long, Section[]> chunks = new HashMap<>();
+        long blocks = 0;
+        if (regions != null) {
+            for (File region : regions) {
+                try {
+                    blocks += readRegion(region, chunks);
+                } catch (IOException e) {
+                    throw new WorldException("Could not read region file " + region.getName() + " of template " + name, e);
+                }
+            }
+        }
+        return new MapTemplate(name, chunks, blocks);
+    }
+
+    private static long readRegion(@Nonnull File region, @Nonnull Map<Long, Section[]> chunks) throws IOException {
+        long blocks = 0;
+        try (RandomAccessFile file = new RandomAccessFile(region, "r")) {
+            if (file.length() < SECTOR_SIZE) {
+                return 0;
+            }
+
+            int[] locations = new int[1024];
+            for (int i = 0; i < locations.length; i++) {
+                locations[i] = file.readInt();
+            }
+
+            for (int index = 0; index < locations.length; index++) {
+                int offset = locations[index] >>> 8;
+                if (offset == 0) {
+                    continue;
+                }
+
+                file.seek((long) offset * SECTOR_SIZE);
+                int length = file.readInt();
+                byte compression = file.readByte();
+                byte[] data = new byte[length - 1];
+                file.readFully(data);
+
+                InputStream in = new ByteArrayInputStream(data);
+                if (compression == 1) {
+                    in = new GZIPInputStream(in);
+                } else if (compression == 2) {
+                    in = new InflaterInputStream(in);
+                } else {
+                    throw new IOException("Unknown compression " + compression);
+                }
+
+                NbtCompound root;
+                try (DataInputStream input = new DataInputStream(in)) {
+                    root = NbtBinarySerializer.DEFAULT.deserializeCompound(input);
+                }
+                if (!root.containsKey("Level")) {
+                    // 1.18 moved the chunk data to the root tag
+                    throw new IOException("Chunk " + index + " has no Level tag, only chunks saved by 1.13 to 1.17 are supported");
+                }
+                NbtCompound level = root.getCompound("Level");
+                Section[] sections = readSections(level);
+                if (sections != null) {
+                    chunks.put(key(level.getInteger("xPos"), level.getInteger("zPos")), sections);
+                    for (Section section : sections) {
+                        if (section != null) {
+                            blocks += section.blocks.length;
+                        }
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    @Nullable
+    private static Section[] readSections(@Nonnull NbtCompound level) {
+        if (!level.containsKey("Sections")) {
+            return null;
+        }
+
+        Section[] sections = new Section[16];
+        boolean empty = true;
+        NbtList<NbtCompound> list = level.getList("Sections");
+        for (NbtCompound nbt : list) {
+            int y = nbt.getByte("Y");
+            if (y < 0 || y >= sections.length || !nbt.containsKey("Palette") || !nbt.containsKey("BlockStates")) {
+                continue;
+            }
+
+            NbtList<NbtCompound> paletteNbt = nbt.getList("Palette");
+            BlockData[] palette = new BlockData[paletteNbt.size()];
+            boolean air = true;
+            int index = 0;
+            for (NbtCompound entry : paletteNbt) {
+                palette[index] = readBlockData(entry);
+                if (palette[index] != null) {
+                    air = false;
+                }
+                index++;
+            }
+            if (air) {
+                continue;
+            }
+
+            long[] states = (long[]) nbt.getValue("BlockStates").getValue();
+            sections[y] = new Section(palette, unpack(states, palette.length));
+            empty = false;
+        }
+        return empty ? null : sections;
+    }
+
+    /**
+     * @return the block data for that palette entry, null for air
+     */
+    @Nullable
+    private static BlockData readBlockData(@Nonnull NbtCompound entry) {
+        String name = entry.getString("Name");
+        if (AIR.contains(name)) {
+            return null;
+        }
+
+        StringBuilder state = new StringBuilder(name);
+        if (entry.containsKey("Properties")) {
+            NbtCompound properties = entry.getCompound("Properties");
+            StringJoiner joiner = new StringJoiner(",", "[", "]");
+            for (String key : properties.getKeys()) {
+                joiner.add(key + "=" + properties.getString(key));
+            }
+            state.append(joiner.toString());
+        }
+        return Bukkit.createBlockData(state.toString());
+    }
+
+    /**
+     * Unpacks the palette indexes of a section. Since 1.16 entries don't span over two longs anymore, we can tell the
+     * formats apart by the length of the array.
+     */
+    @Nonnull
+    private static char[] unpack(@Nonnull long[] states, int paletteSize) {
+        int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+        long mask = (1L << bits) - 1;
+        char[] blocks = new char[4096];
+        int perLong = 64 / bits;
+        boolean spanning = states.length != (4096 + perLong - 1) / perLong;
+
+        for (int i = 0; i < blocks.length; i++) {
+            int value;
+            if (spanning) {
+                long bit = (long) i * bits;
+                int start = (int) (bit >> 6);
+                int offset = (int) (bit & 63);
+                long raw = states[start] >>> offset;
+                if (offset + bits > 64) {
+                    raw |= states[start + 1] << (64 - offset);
+                }
+                value = (int) (raw & mask);
+            } else {
+                value = (int) ((states[i / perLong] >>> ((i % perLong) * bits)) & mask);
+            }
+            blocks[i] = (char) value;
+        }
+        return blocks;
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Copies the blocks of a chunk into the chunk data
+     *
+     * @param x    the chunk x coordinate
+     * @param z    the chunk z coordinate
+     * @param data the chunk data to fill
+     * @return false if the template doesn't contain that chunk
+     */
+    public boolean apply(int x, int z, @Nonnull ChunkGenerator.ChunkData data) {
+        Section[] sections = chunks.get(key(x, z));
+        if (sections == null) {
+            return false;
+        }
+
+        for (int y = 0; y < sections.length; y++) {
+            Section section = sections[y];
+            if (section == null) {
+                continue;
+            }
+
+            int baseY = y << 4;
+            for (int i = 0; i < section.blocks.length; i++) {
+                BlockData block = section.palette[section.blocks[i]];
+                if (block != null) {
+                    data.setBlock(i & 15, baseY | (i >> 8), (i >> 4) & 15, block);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the name of the template
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of (not empty) chunks in this template
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return the number of blocks that are kept in memory, including air in not empty sections
+     */
+    public long getBlockCount() {
+        return blocks;
+    }
+
+    /**
+     * The blocks of a 16x16x16 section as indexes into a palette, in yzx order
+     */
+    private static class Section {
+
+        // null for air
+        private final BlockData[] palette;
+        private final char[] blocks;
+
+        Section(@Nonnull BlockData[] palette, @Nonnull char[] blocks) {
+            this.palette = palette;
+            this.blocks = blocks;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.voxelgameslib.voxelgameslib.components.world;
+
+import java.util.Random;
+import javax.annotation.Nonnull;
+
+import org.bukkit.World;
+import org.bukkit.generator.ChunkGenerator;
+
+/**
+ * Generates the chunks of a world from a {@link MapTemplate} in memory, so the world doesn't need any region files.
+ * Chunks outside of the template are empty, like with the {@link CleanRoomChunkGenerator}.
+ */
+public class TemplateChunkGenerator extends ChunkGenerator {
+
+    private final MapTemplate template;
+
+    public TemplateChunkGenerator(@Nonnull MapTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    @Nonnull
+    public ChunkData generateChunkData(@Nonnull World world, @Nonnull Random random, int x, int z, @Nonnull BiomeGrid biome) {
+        ChunkData data = createChunkData(world);
+        template.apply(x, z, data);
+        return data;
+    }
+
+    @Override
+    public boolean isParallelCapable() {
+        // the template is immutable
+        return true;
+    }
+
+    /**
+     * @return the template that backs this generator
+     */
+    @Nonnull
+    public MapTemplate getTemplate() {
+        return template;
+    }
+}
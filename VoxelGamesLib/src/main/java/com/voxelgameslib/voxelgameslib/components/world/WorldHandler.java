@@ -2,21 +2,19 @@ package com.voxelgameslib.voxelgameslib.components.world;
 
 import com.google.common.io.Files;
 import com.google.gson.Gson;
-import com.google.gson.stream.JsonReader;
 import com.google.inject.Provider;
 import com.google.inject.name.Named;
 
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
-import net.lingala.zip4j.model.FileHeader;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -29,12 +27,12 @@ import javax.inject.Singleton;
 import com.voxelgameslib.voxelgameslib.api.exception.MapException;
 import com.voxelgameslib.voxelgameslib.api.exception.WorldException;
 import com.voxelgameslib.voxelgameslib.components.map.Map;
-import com.voxelgameslib.voxelgameslib.components.map.MapHandler;
 import com.voxelgameslib.voxelgameslib.components.map.MapInfo;
 import com.voxelgameslib.voxelgameslib.components.map.MapScanner;
 import com.voxelgameslib.voxelgameslib.components.map.Marker;
 import com.voxelgameslib.voxelgameslib.components.user.User;
 import com.voxelgameslib.voxelgameslib.internal.config.ConfigHandler;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
 import com.voxelgameslib.voxelgameslib.internal.lang.Lang;
 import com.voxelgameslib.voxelgameslib.internal.lang.LangKey;
@@ -50,6 +48,7 @@ import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.WorldType;
 import org.bukkit.block.Block;
+import org.bukkit.generator.ChunkGenerator;
 
 /**
  * Handles the worlds (loading, unloading etc)
@@ -73,22 +72,29 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
     @Inject
     private WorldRepository worldRepository;
     @Inject
-    private MapHandler mapHandler;
+    private WorldTemplateCache templateCache;
+    @Inject
+    private MapCatalog mapCatalog;
+    @Inject
+    private WorldTrash worldTrash;
+    @Inject
+    private GlobalConfig globalConfig;
 
     private WorldConfig config;
     private File configFile;
 
-    private final List<Map> maps = new ArrayList<>();
+    private final java.util.Map<String, Map> maps = new HashMap<>();
+    private final java.util.Map<String, MapInfo> mapInfos = new HashMap<>();
 
     /**
-     * Gets a map from a list of loaded maps
+     * Gets a map from the loaded maps
      *
      * @param name the map to search for
      * @return the map, if present
      */
     @Nonnull
     public Optional<Map> getMap(@Nonnull String name) {
-        return maps.stream().filter(map -> map.getWorldName().equalsIgnoreCase(name)).findAny();
+        return Optional.ofNullable(maps.get(name.toLowerCase(Locale.ROOT)));
     }
 
     /**
@@ -96,38 +102,27 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
      *
      * @param name the name of the map to load
      * @return the loaded map
-     * @throws MapException when
+     * @throws MapException when the map is unknown or its config could not be loaded
      */
     @Nonnull
     public Map loadMap(@Nonnull String name) {
         Optional<Map> map = getMap(name);
-        if (!map.isPresent()) {
-            Optional<MapInfo> mapInfo = getMapInfo(name);
-            if (!mapInfo.isPresent()) {
-                throw new MapException(
-                        "Unknown map " + name + ". Did you register it into the world config?");
-            }
-
-            try {
-                ZipFile zipFile = new ZipFile(new File(worldsFolder, mapInfo.get().getWorldName() + ".zip"));
-                for (FileHeader header : (List<FileHeader>) zipFile.getFileHeaders()) {
-                    if (header.getFileName().endsWith("config.json")) {
-                        InputStream stream = zipFile.getInputStream(header);
-                        Map m = gson.fromJson(new JsonReader(new InputStreamReader(stream)), Map.class);
-                        m.initMarkers(mapHandler);
-                        maps.add(m);
-                        return m;
-                    }
-                }
-                throw new MapException("Could not load map config for map " + name
-                        + ". Fileheader was null. Does it has a map.json?");
-
-            } catch (Exception e) {
-                throw new MapException("Error while trying to load map config " + name + "(" + mapInfo.get().getWorldName() + ".zip)", e);
-            }
-        } else {
+        if (map.isPresent()) {
             return map.get();
         }
+
+        Optional<MapInfo> mapInfo = getMapInfo(name);
+        if (!mapInfo.isPresent()) {
+            throw new MapException(
+                    "Unknown map " + name + ". Did you register it into the world config?");
+        }
+
+        String worldName = mapInfo.get().getWorldName();
+        // the zip might have been added after the catalog was built
+        Map m = mapCatalog.getMap(worldName).orElseGet(() -> mapCatalog.read(worldName).orElseThrow(() ->
+                new MapException("Could not load map config for map " + name + " (" + worldName + ".zip)")));
+        maps.put(name.toLowerCase(Locale.ROOT), m);
+        return m;
     }
 
     /**
@@ -138,12 +133,11 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
      */
     @Nonnull
     public Optional<MapInfo> getMapInfo(@Nonnull String name) {
-        return config.maps.stream().filter(mapInfo -> mapInfo.getWorldName().equalsIgnoreCase(name))
-                .findAny();
+        return Optional.ofNullable(mapInfos.get(name.toLowerCase(Locale.ROOT)));
     }
 
     /**
-     * Loads a world. Needs to copy the file from the repo, unzip it and let the implementation load it <br><b>Always
+     * Loads a world. Needs to copy the files from the template (or unzip the map) and let the implementation load it <br><b>Always
      * needs to call super! Super needs to be called first (because it copies the world)</b>
      *
      * @param map    the map that should be loaded
@@ -158,15 +152,26 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
 
         File file = new File(worldContainer, map.getLoadedName(gameid));
 
-        try {
-            ZipFile zip = new ZipFile(new File(worldsFolder, map.getWorldName() + ".zip"));
-            zip.extractAll(file.getAbsolutePath());
-            FileUtils.delete(new File(file, "uid.dat"));
-        } catch (ZipException e) {
-            throw new WorldException("Could not unzip world " + map.getInfo().getDisplayName() + " (" + map.getWorldName() + ".zip).", e);
+        ChunkGenerator generator = new CleanRoomChunkGenerator();
+        boolean inMemory = isInMemoryMap(map.getWorldName());
+        // falls back to a copy of the template while the map is still being decoded
+        Optional<TemplateChunkGenerator> memoryGenerator = inMemory
+                ? templateCache.createMemoryWorld(map.getWorldName(), file) : Optional.empty();
+        if (memoryGenerator.isPresent()) {
+            generator = memoryGenerator.get();
+        } else if (inMemory || globalConfig.worldTemplates.useTemplateCache) {
+            templateCache.createWorld(map.getWorldName(), file);
+        } else {
+            try {
+                ZipFile zip = new ZipFile(new File(worldsFolder, map.getWorldName() + ".zip"));
+                zip.extractAll(file.getAbsolutePath());
+                FileUtils.delete(new File(file, "uid.dat"));
+            } catch (ZipException e) {
+                throw new WorldException("Could not unzip world " + map.getInfo().getDisplayName() + " (" + map.getWorldName() + ".zip).", e);
+            }
         }
 
-        World world = loadLocalWorld(map.getLoadedName(gameid));
+        World world = loadLocalWorld(map.getLoadedName(gameid), generator);
 
         // load chunks based on markers
         int i = 0;
@@ -194,15 +199,23 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
     }
 
     /**
-     * Unloads a world. Needs to lets the implementation unload the world and delete the folder <br><b>Always needs to
-     * call super! Super needs to be called last (because it deletes the world folder)</b>
+     * @param worldName the name of the map world
+     * @return if the chunks of that map are served from memory
+     */
+    public boolean isInMemoryMap(@Nonnull String worldName) {
+        return globalConfig.worldTemplates.inMemoryMaps.stream().anyMatch(name -> name.equalsIgnoreCase(worldName));
+    }
+
+    /**
+     * Unloads a world. Needs to lets the implementation unload the world and delete the folder (in the background)
+     * <br><b>Always needs to call super! Super needs to be called last (because it deletes the world folder)</b>
      *
      * @param map    the map that should be unloaded.
      * @param gameid the id of the game that this map belongs to
      */
     public void unloadWorld(@Nonnull Map map, @Nonnull UUID gameid) {
         unloadLocalWorld(map.getLoadedName(gameid));
-        FileUtils.delete(new File(worldContainer, map.getLoadedName(gameid)));
+        worldTrash.trash(new File(worldContainer, map.getLoadedName(gameid)));
         map.unload(gameid);
     }
 
@@ -224,6 +237,8 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
 
     @Override
     public void enable() {
+        worldTrash.start();
+        templateCache.start();
         cleanup();
 
         //worldRepository.setURL();// TODO make url configurable
@@ -250,11 +265,17 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
                 configHandler.migrate(configFile, config);
             }
         }
+
+        config.maps.forEach(info -> mapInfos.put(info.getWorldName().toLowerCase(Locale.ROOT), info));
+        mapCatalog.build(config.maps);
+        globalConfig.worldTemplates.inMemoryMaps.forEach(templateCache::prepareMapTemplate);
     }
 
     @Override
     public void disable() {
+        templateCache.stop();
         cleanup();
+        worldTrash.stop();
     }
 
     private void cleanup() {
@@ -262,7 +283,7 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
         if (files != null) {
             for (File file : files) {
                 if (file.isDirectory() && file.getName().startsWith("TEMP_")) {
-                    FileUtils.delete(file);
+                    worldTrash.trash(file);
                 }
             }
         }
@@ -283,12 +304,25 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
      */
     @Nonnull
     public World loadLocalWorld(@Nonnull String name) {
+        return loadLocalWorld(name, new CleanRoomChunkGenerator());
+    }
+
+    /**
+     * Loads a local world with a custom generator
+     *
+     * @param name      the world to load
+     * @param generator the generator for chunks that don't exist on disk
+     * @return the loaded world
+     * @throws WorldException if the world is not found or something else goes wrong
+     */
+    @Nonnull
+    public World loadLocalWorld(@Nonnull String name, @Nonnull ChunkGenerator generator) {
         log.finer("Loading world " + name);
         org.bukkit.WorldCreator wc = new WorldCreator(name);
         wc.environment(World.Environment.NORMAL); //TODO do we need support for environment in maps?
         wc.generateStructures(false);
         wc.type(WorldType.NORMAL);
-        wc.generator(new CleanRoomChunkGenerator());
+        wc.generator(generator);
         wc.generatorSettings("");
         World world = wc.createWorld();
         world.setAutoSave(false);
@@ -329,8 +363,24 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
 
         NMSUtil.flushSaveQueue(world);
 
-        mapScanner.scan(map, editor.getUuid());
+        mapScanner.scan(map, editor.getUuid(), (done, total) -> Lang.msg(editor, LangKey.WORLD_CREATOR_SCAN_PROGRESS, done, total))
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        Lang.msg(editor, LangKey.WORLD_CREATOR_SCAN_ERROR, ex.getMessage(), ex.getClass().getName());
+                        log.log(Level.WARNING, "Error while scanning map " + map.getWorldName() + " for markers", ex);
+                    } else {
+                        saveEditedMap(editor, map);
+                    }
+                });
+    }
 
+    /**
+     * Saves the config and the zip of a map after it was scanned
+     *
+     * @param editor the user that edited the map
+     * @param map    the map that was edited
+     */
+    private void saveEditedMap(@Nonnull User editor, @Nonnull Map map) {
         File worldFolder = new File(getWorldContainer(), map.getWorldName());
 
         try {
@@ -370,6 +420,8 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
             config.maps.add(map.getInfo());
             saveConfig();
         }
+        mapInfos.put(map.getWorldName().toLowerCase(Locale.ROOT), map.getInfo());
+        mapCatalog.update(map);
 
         getWorldRepository().commitRepo();
 
@@ -383,4 +435,14 @@ public class WorldHandler implements Handler, Provider<WorldConfig> {
     public WorldRepository getWorldRepository() {
         return this.worldRepository;
     }
+
+    /**
+     * Pulls the world repo and rebuilds the map catalog, so that changed zips are picked up by the next game
+     */
+    public void updateRepo() {
+        worldRepository.updateRepo();
+        mapCatalog.build(config.maps);
+        // running games keep their map, new games get the new config
+        maps.clear();
+    }
 }
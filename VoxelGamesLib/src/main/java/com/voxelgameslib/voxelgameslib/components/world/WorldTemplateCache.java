@@ -0,0 +1,321 @@
+package com.voxelgameslib.voxelgameslib.components.world;
+
+import com.google.common.hash.Hashing;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.exception.ZipException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.voxelgameslib.voxelgameslib.api.exception.WorldException;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
+import com.voxelgameslib.voxelgameslib.util.utils.FileUtils;
+
+/**
+ * Extracts every map zip only once into a template folder. Game worlds are then created by copying (or hard linking)
+ * the files of the template. Template folders are named after the world and the hash of the zip, so a changed zip
+ * results in a new template and the old one is deleted.<br>
+ * Maps can also be decoded into a {@link MapTemplate}, then game worlds only get the level.dat and the chunks are
+ * served from memory. Decoding runs on its own thread, games that start before it is done get a copy of the template.
+ */
+@Singleton
+public class WorldTemplateCache {
+
+    private static final Logger log = Logger.getLogger(WorldTemplateCache.class.getName());
+    private static final String MARKER = ".vgl_template";
+    private static final char SEPARATOR = '@';
+
+    @Inject
+    @Named("WorldsFolder")
+    private File worldsFolder;
+    @Inject
+    @Named("TemplatesFolder")
+    private File templatesFolder;
+    @Inject
+    private GlobalConfig config;
+    @Inject
+    private WorldTrash worldTrash;
+
+    private final Map<String, CachedTemplate> templates = new HashMap<>();
+    private final Map<File, CompletableFuture<MapTemplate>> memoryTemplates = new HashMap<>();
+    private boolean linksSupported = true;
+    private ExecutorService decoder;
+
+    /**
+     * Starts the thread that decodes the in memory templates
+     */
+    public void start() {
+        decoder = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "VGL-MapDecoder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops decoding, templates that are not done yet are dropped
+     */
+    public void stop() {
+        if (decoder != null) {
+            decoder.shutdownNow();
+            decoder = null;
+        }
+    }
+
+    /**
+     * Creates a new world folder from the template of that map, extracts the template first if needed
+     *
+     * @param worldName the name of the map world
+     * @param target    the folder the world should be created in
+     * @throws WorldException if the template could not be extracted or copied
+     */
+    public void createWorld(@Nonnull String worldName, @Nonnull File target) {
+        File template = getTemplate(worldName);
+        try {
+            copy(template.toPath(), target.toPath());
+        } catch (IOException e) {
+            throw new WorldException("Could not copy template " + template.getName() + " to " + target.getName(), e);
+        }
+    }
+
+    /**
+     * Extracts and decodes the map in the background, so that it is ready when the first game needs it
+     *
+     * @param worldName the name of the map world
+     * @return a future with the decoded template
+     */
+    @Nonnull
+    public CompletableFuture<MapTemplate> prepareMapTemplate(@Nonnull String worldName) {
+        return CompletableFuture.supplyAsync(() -> getTemplate(worldName), decoder).whenComplete((template, ex) -> {
+            if (ex != null) {
+                log.log(Level.WARNING, "Could not extract template for " + worldName, ex);
+            }
+        }).thenCompose(this::getMapTemplate);
+    }
+
+    /**
+     * Creates a new world folder that only contains the level.dat of the template and returns the generator that
+     * serves the chunks of the map from memory. Never decodes on the calling thread: if the map is not decoded yet,
+     * decoding is started and nothing is created, the caller should create a normal world with
+     * {@link #createWorld(String, File)} then.
+     *
+     * @param worldName the name of the map world
+     * @param target    the folder the world should be created in
+     * @return the generator for the new world, empty if the template is not decoded (yet)
+     * @throws WorldException if the template could not be extracted or copied
+     */
+    @Nonnull
+    public Optional<TemplateChunkGenerator> createMemoryWorld(@Nonnull String worldName, @Nonnull File target) {
+        File template = getTemplate(worldName);
+        CompletableFuture<MapTemplate> future = getMapTemplate(template);
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            log.info("Template " + template.getName() + " is not decoded yet, copying it instead");
+            return Optional.empty();
+        }
+
+        try {
+            Files.createDirectories(target.toPath());
+            // we need the spawn, else the server searches for one
+            File levelDat = new File(template, "level.dat");
+            if (levelDat.exists()) {
+                Files.copy(levelDat.toPath(), new File(target, "level.dat").toPath());
+            }
+        } catch (IOException e) {
+            throw new WorldException("Could not copy level.dat of template " + template.getName() + " to " + target.getName(), e);
+        }
+        return Optional.of(new TemplateChunkGenerator(future.join()));
+    }
+
+    /**
+     * Gets the decoded template, starts decoding it on the decoder thread if needed. A failed decode is tried again on
+     * the next call.
+     */
+    @Nonnull
+    private synchronized CompletableFuture<MapTemplate> getMapTemplate(@Nonnull File template) {
+        CompletableFuture<MapTemplate> future = memoryTemplates.get(template);
+        if (future == null || future.isCompletedExceptionally()) {
+            // only keep the current version of every map
+            memoryTemplates.keySet().removeIf(file -> !file.exists());
+            future = CompletableFuture.supplyAsync(() -> decode(template), decoder);
+            future.whenComplete((mapTemplate, ex) -> {
+                if (ex != null) {
+                    log.log(Level.WARNING, "Could not decode template " + template.getName(), ex);
+                }
+            });
+            memoryTemplates.put(template, future);
+        }
+        return future;
+    }
+
+    @Nonnull
+    private MapTemplate decode(@Nonnull File template) {
+        long start = System.currentTimeMillis();
+        MapTemplate mapTemplate = MapTemplate.load(template.getName(), template);
+        log.info("Decoded template " + template.getName() + " into memory (" + mapTemplate.getChunkCount()
+                + " chunks) in " + (System.currentTimeMillis() - start) + "ms");
+        return mapTemplate;
+    }
+
+    /**
+     * Returns the template folder for that map. Extracts the zip if there is no template for the current version of
+     * it.
+     *
+     * @param worldName the name of the map world
+     * @return the template folder
+     * @throws WorldException if the template could not be extracted
+     */
+    @Nonnull
+    public synchronized File getTemplate(@Nonnull String worldName) {
+        File zip = new File(worldsFolder, worldName + ".zip");
+        if (!zip.exists()) {
+            throw new WorldException("Could not find world zip " + zip.getName());
+        }
+
+        // only hash the zip again if it looks different
+        CachedTemplate cached = templates.get(worldName);
+        if (cached != null && cached.matches(zip) && cached.folder.exists()) {
+            return cached.folder;
+        }
+
+        String hash;
+        try {
+            hash = com.google.common.io.Files.asByteSource(zip).hash(Hashing.murmur3_128()).toString();
+        } catch (IOException e) {
+            throw new WorldException("Could not hash world zip " + zip.getName(), e);
+        }
+
+        File folder = new File(templatesFolder, worldName + SEPARATOR + hash);
+        if (!new File(folder, MARKER).exists()) {
+            extract(zip, folder);
+            deleteOtherVersions(worldName, folder);
+        }
+
+        templates.put(worldName, new CachedTemplate(folder, zip.lastModified(), zip.length()));
+        return folder;
+    }
+
+    /**
+     * Forgets and deletes all templates
+     */
+    public synchronized void clear() {
+        templates.clear();
+        memoryTemplates.clear();
+        FileUtils.delete(templatesFolder);
+    }
+
+    private void extract(@Nonnull File zip, @Nonnull File folder) {
+        log.info("Extracting template " + folder.getName());
+        // extract next to the final folder and move it in place once it's complete
+        File temp = new File(templatesFolder, folder.getName() + ".tmp");
+        if (temp.exists()) {
+            FileUtils.delete(temp);
+        }
+
+        try {
+            new ZipFile(zip).extractAll(temp.getAbsolutePath());
+            FileUtils.delete(new File(temp, "uid.dat"));
+            FileUtils.delete(new File(temp, "session.lock"));
+            if (!new File(temp, MARKER).createNewFile()) {
+                throw new IOException("Could not create template marker");
+            }
+
+            if (folder.exists()) {
+                FileUtils.delete(folder);
+            }
+            Files.move(temp.toPath(), folder.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (ZipException | IOException e) {
+            FileUtils.delete(temp);
+            throw new WorldException("Could not extract template " + folder.getName(), e);
+        }
+    }
+
+    private void deleteOtherVersions(@Nonnull String worldName, @Nonnull File current) {
+        File[] files = templatesFolder.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory() && file.getName().startsWith(worldName + SEPARATOR) && !file.equals(current)) {
+                log.info("Deleting outdated template " + file.getName());
+                worldTrash.trash(file);
+            }
+        }
+    }
+
+    private void copy(@Nonnull Path from, @Nonnull Path to) throws IOException {
+        boolean link = config.worldTemplates.hardLinkRegions;
+        Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(to.resolve(from.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (file.getFileName().toString().equals(MARKER)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                Path target = to.resolve(from.relativize(file));
+                if (link && linksSupported && isRegionFile(file)) {
+                    try {
+                        Files.createLink(target, file);
+                        return FileVisitResult.CONTINUE;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        log.log(Level.WARNING, "Could not hard link region files, copying them instead", e);
+                        linksSupported = false;
+                    }
+                }
+
+                Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private boolean isRegionFile(@Nonnull Path file) {
+        return file.getFileName().toString().endsWith(".mca");
+    }
+
+    /**
+     * Remembers which template belongs to which version of a zip
+     */
+    private static class CachedTemplate {
+
+        private final File folder;
+        private final long lastModified;
+        private final long length;
+
+        CachedTemplate(@Nonnull File folder, long lastModified, long length) {
+            this.folder = folder;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        boolean matches(@Nonnull File zip) {
+            return zip.lastModified() == lastModified && zip.length() == length;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.voxelgameslib.voxelgameslib.components.world;
+
+import com.google.gson.annotations.Expose;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores config values related to the map templates that game worlds are created from
+ */
+public class WorldTemplateConfig {
+
+    /**
+     * If map zips should be extracted once into a template folder instead of once per game
+     */
+    @Expose
+    public boolean useTemplateCache = true;
+    /**
+     * If region files should be hard linked instead of copied. Only safe as long as game worlds are never saved,
+     * because a linked region file is shared with the template.
+     */
+    @Expose
+    public boolean hardLinkRegions = false;
+    /**
+     * The maps (world names) whose chunks are served from memory instead of being copied for every game. Meant for
+     * small arenas, tile entities and entities of these maps are not loaded.
+     */
+    @Expose
+    public List<String> inMemoryMaps = new ArrayList<>();
+}
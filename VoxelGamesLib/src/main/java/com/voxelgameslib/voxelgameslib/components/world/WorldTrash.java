@@ -0,0 +1,187 @@
+package com.voxelgameslib.voxelgameslib.components.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
+import com.voxelgameslib.voxelgameslib.util.utils.FileUtils;
+
+/**
+ * Deletes world folders in the background. Folders are renamed into the trash folder first (which is cheap and frees
+ * the name right away), then a small pool of threads deletes them, so the main thread never waits for the disk.
+ */
+@Singleton
+public class WorldTrash {
+
+    private static final Logger log = Logger.getLogger(WorldTrash.class.getName());
+
+    @Inject
+    @Named("TrashFolder")
+    private File trashFolder;
+    @Inject
+    private GlobalConfig config;
+
+    private ExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+
+    /**
+     * Starts the delete threads and schedules everything that is still in the trash from the last run
+     */
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, config.worldDeleteThreads), (runnable) -> {
+            Thread thread = new Thread(runnable, "VGL-WorldTrash-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        File[] files = trashFolder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                schedule(file);
+            }
+        }
+    }
+
+    /**
+     * Waits a bit for the pending deletions, everything that is left will be deleted after the next start
+     */
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warning("Could not delete " + pending.get() + " world folders in time, will delete them on next start");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Moves the folder into the trash and deletes it in the background
+     *
+     * @param folder the folder to delete
+     */
+    public void trash(@Nonnull File folder) {
+        if (!folder.exists()) {
+            return;
+        }
+
+        if (!trashFolder.exists() && !trashFolder.mkdirs()) {
+            log.warning("Could not create trash folder " + trashFolder.getAbsolutePath());
+        }
+
+        File target = new File(trashFolder, folder.getName() + "_" + System.nanoTime());
+        if (folder.renameTo(target)) {
+            schedule(target);
+        } else {
+            // rename failed (different file system?), delete it in place
+            schedule(folder);
+        }
+    }
+
+    private void schedule(@Nonnull File folder) {
+        if (executor == null) {
+            FileUtils.delete(folder);
+            return;
+        }
+
+        pending.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    delete(folder.toPath());
+                    deleted.incrementAndGet();
+                } catch (IOException e) {
+                    failed.incrementAndGet();
+                    log.log(Level.WARNING, "Could not delete world folder " + folder.getAbsolutePath(), e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            FileUtils.delete(folder);
+        }
+    }
+
+    private void delete(@Nonnull Path folder) throws IOException {
+        if (!Files.exists(folder)) {
+            return;
+        }
+
+        Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                deletedFiles.incrementAndGet();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return the number of folders that are waiting to be (or are currently being) deleted
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * @return the number of folders that were deleted since the start
+     */
+    public long getDeleted() {
+        return deleted.get();
+    }
+
+    /**
+     * @return the number of folders that could not be deleted since the start
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of files that were deleted since the start
+     */
+    public long getDeletedFiles() {
+        return deletedFiles.get();
+    }
+}
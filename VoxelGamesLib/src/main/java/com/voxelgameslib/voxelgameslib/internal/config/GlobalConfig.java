@@ -7,6 +7,9 @@ import java.util.logging.Level;
 import javax.annotation.Nonnull;
 import javax.inject.Singleton;
 
+import com.voxelgameslib.voxelgameslib.api.tick.TickConfig;
+import com.voxelgameslib.voxelgameslib.components.matchmaking.MatchmakingConfig;
+import com.voxelgameslib.voxelgameslib.components.world.WorldTemplateConfig;
 import com.voxelgameslib.voxelgameslib.internal.lang.Locale;
 import com.voxelgameslib.voxelgameslib.internal.persistence.PersistenceConfig;
 import com.voxelgameslib.voxelgameslib.util.utils.CollectionUtil;
@@ -17,7 +20,7 @@ import com.voxelgameslib.voxelgameslib.util.utils.CollectionUtil;
 @Singleton
 public class GlobalConfig extends Config {
 
-    public final int configVersion = 3;
+    public final int configVersion = 14;
     @Expose
     public int currentVersion = configVersion;
 
@@ -39,6 +42,16 @@ public class GlobalConfig extends Config {
     public boolean loadGameDefinitions = false;
     @Expose
     public String defaultGame = "none";
+    @Expose
+    public TickConfig tick = new TickConfig();
+    @Expose
+    public MatchmakingConfig matchmaking = new MatchmakingConfig();
+    @Expose
+    public WorldTemplateConfig worldTemplates = new WorldTemplateConfig();
+    @Expose
+    public int worldDeleteThreads = 2;
+    @Expose
+    public int leaderboardSeedSize = 100000;
 
     /**
      * @return the default config, with all default settings
@@ -5,12 +5,16 @@ import net.kyori.text.TextComponent;
 import net.kyori.text.format.TextColor;
 import net.kyori.text.serializer.ComponentSerializers;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import com.voxelgameslib.voxelgameslib.api.exception.LangException;
+import com.voxelgameslib.voxelgameslib.components.chat.PreparedMessage;
 import com.voxelgameslib.voxelgameslib.components.user.GameConsoleUser;
 import com.voxelgameslib.voxelgameslib.components.user.User;
 import com.voxelgameslib.voxelgameslib.components.user.UserHandler;
@@ -78,11 +82,16 @@ public class Lang {
     @Nonnull
     public static TextComponent trans(@Nonnull Translatable key, @Nonnull Locale loc,
                                       @Nullable Object... args) {
-        if (args == null) {
-            args = new Object[0];
+        Object[] arguments = args == null ? new Object[0] : args;
+        checkArgs(key, arguments);
+
+        String[] values = new String[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = replacement(arguments[i], loc);
         }
 
-        return parseFormat(string(key, loc, args));
+        return storage(key, loc).getTemplate(key).render(values)
+                .orElseGet(() -> parseFormat(string(key, loc, arguments)));
     }
 
     /**
@@ -279,6 +288,23 @@ public class Lang {
         user.sendMessage(trans(key, user.getLocale(), args));
     }
 
+    /**
+     * Sends all users a message that contains the translated version (using their locale) of the specified key<br> The
+     * message is only translated and serialized once per locale, not once per user.
+     *
+     * @param users the users that should receive the message
+     * @param key   the lang key that should be translated
+     * @param args  the args that should be replacing placeholders
+     */
+    public static void msg(@Nonnull Collection<? extends User> users, @Nonnull Translatable key,
+                           @Nullable Object... args) {
+        Map<Locale, PreparedMessage> rendered = new HashMap<>();
+        for (User user : users) {
+            user.sendMessage(rendered.computeIfAbsent(user.getLocale(),
+                    loc -> PreparedMessage.of(trans(key, loc, args))));
+        }
+    }
+
     /**
      * Translates the specified lang key into a string
      *
@@ -325,38 +351,47 @@ public class Lang {
      */
     @Nonnull
     public static String string(@Nonnull Translatable key, @Nonnull Locale loc, @Nonnull Object... args) {
+        checkArgs(key, args);
+
+        String string = storage(key, loc).get(key);
+
+        for (int i = 0; i < args.length; i++) {
+            string = string.replace("{" + key.getArgs()[i] + "}", replacement(args[i], loc));
+        }
+
+        return String.format(string, args);
+    }
+
+    private static void checkArgs(@Nonnull Translatable key, @Nonnull Object[] args) {
         if (args.length != key.getArgs().length) {
             throw new LangException(
                     "Wrong arguments for Translatable " + key.name() + ": entered " + args.length + ", expected "
                             + key.getArgs().length);
         }
+    }
 
-        LangStorage storage;
+    @Nonnull
+    private static LangStorage storage(@Nonnull Translatable key, @Nonnull Locale loc) {
         if (key instanceof ExternalTranslatable) {
-            storage = handler.getExternalStorage(((ExternalTranslatable) key).getUuid(), loc);
+            return handler.getExternalStorage(((ExternalTranslatable) key).getUuid(), loc);
         } else {
-            storage = handler.getStorage(loc);
+            return handler.getStorage(loc);
         }
-        String string = storage.get(key);
-
-        for (int i = 0; i < args.length; i++) {
-            String replacement;
-            if (args[i] instanceof String) {
-                replacement = (String) args[i];
-            } else if (args[i] instanceof Component) {
-                replacement = ChatUtil.toPlainText((Component) args[i]);
-            } else if (args[i] instanceof Component[]) {
-                replacement = ChatUtil.toPlainText((Component[]) args[i]);
-            } else if (args[i] instanceof Translatable) {
-                replacement = string((Translatable) args[i], loc);
-            } else {
-                replacement = String.valueOf(args[i]);
-            }
+    }
 
-            string = string.replace("{" + key.getArgs()[i] + "}", replacement);
+    @Nonnull
+    private static String replacement(@Nullable Object arg, @Nonnull Locale loc) {
+        if (arg instanceof String) {
+            return (String) arg;
+        } else if (arg instanceof Component) {
+            return ChatUtil.toPlainText((Component) arg);
+        } else if (arg instanceof Component[]) {
+            return ChatUtil.toPlainText((Component[]) arg);
+        } else if (arg instanceof Translatable) {
+            return string((Translatable) arg, loc);
+        } else {
+            return String.valueOf(arg);
         }
-
-        return String.format(string, args);
     }
 
     @Nonnull
@@ -384,7 +419,8 @@ public class Lang {
      * @param message the message to send
      */
     public static void broadcast(@Nonnull Component message) {
-        userHandler.getUsers().forEach(user -> user.sendMessage(message));
+        PreparedMessage prepared = PreparedMessage.of(message);
+        userHandler.getUsers().forEach(user -> user.sendMessage(prepared));
         GameConsoleUser.INSTANCE.sendMessage(message);
     }
 
@@ -395,7 +431,7 @@ public class Lang {
      * @param args the args for the message
      */
     public static void broadcast(@Nonnull Translatable key, @Nonnull Object... args) {
-        userHandler.getUsers().forEach(user -> Lang.msg(user, key, args));
+        msg(userHandler.getUsers(), key, args);
         GameConsoleUser.INSTANCE.sendMessage(Lang.transVar(key, args));
     }
 }
@@ -8,7 +8,9 @@ import net.kyori.text.format.TextDecoration;
 import net.kyori.text.serializer.ComponentSerializers;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Stack;
 import javax.annotation.Nonnull;
@@ -17,6 +19,19 @@ import com.voxelgameslib.voxelgameslib.api.exception.VoxelGameLibException;
 
 public class LangFormatter {
 
+    // lookups instead of valueOf, most tokens are text and valueOf would throw for each of them
+    private static final Map<String, TextColor> COLORS = new HashMap<>();
+    private static final Map<String, TextDecoration> DECORATIONS = new HashMap<>();
+
+    static {
+        for (TextColor color : TextColor.values()) {
+            COLORS.put(color.name(), color);
+        }
+        for (TextDecoration decoration : TextDecoration.values()) {
+            DECORATIONS.put(decoration.name(), decoration);
+        }
+    }
+
     @Nonnull
     public static TextComponent parseFormat(@Nonnull String string) {
         //%replace%System.out.println("parse format " + string);
@@ -128,7 +143,7 @@ public class LangFormatter {
     }
 
     @Nonnull
-    private static ClickEvent handleClick(@Nonnull String token) {
+    static ClickEvent handleClick(@Nonnull String token) {
         String[] args = token.split(":");
         ClickEvent clickEvent;
         if (args.length < 2)
@@ -153,7 +168,7 @@ public class LangFormatter {
     }
 
     @Nonnull
-    private static HoverEvent handleHover(@Nonnull String token) {
+    static HoverEvent handleHover(@Nonnull String token) {
         String[] args = token.split(":");
         HoverEvent hoverEvent;
         if (args.length < 2)
@@ -175,35 +190,40 @@ public class LangFormatter {
     }
 
     @Nonnull
-    private static TextColor handleColor(@Nonnull String token) {
+    static TextColor handleColor(@Nonnull String token) {
         return resolveColor(token).orElseThrow(() -> new VoxelGameLibException("Can't parse color " + token));
     }
 
     @Nonnull
-    private static TextDecoration handleDecoration(@Nonnull String token) {
+    static TextDecoration handleDecoration(@Nonnull String token) {
         return resolveDecoration(token).orElseThrow(() -> new VoxelGameLibException("Can't parse decoration " + token));
     }
 
     @Nonnull
-    private static Optional<TextColor> resolveColor(@Nonnull String token) {
-        try {
-            return Optional.of(TextColor.valueOf(token.toUpperCase()));
-        } catch (IllegalArgumentException ex) {
-            return Optional.empty();
-        }
+    static Optional<TextColor> resolveColor(@Nonnull String token) {
+        return Optional.ofNullable(COLORS.get(token.toUpperCase()));
     }
 
     @Nonnull
-    private static Optional<TextDecoration> resolveDecoration(@Nonnull String token) {
-        try {
-            return Optional.of(TextDecoration.valueOf(token.toUpperCase()));
-        } catch (IllegalArgumentException ex) {
-            return Optional.empty();
-        }
+    static Optional<TextDecoration> resolveDecoration(@Nonnull String token) {
+        return Optional.ofNullable(DECORATIONS.get(token.toUpperCase()));
+    }
+
+    /**
+     * @param token the token
+     * @return true if {@link #parseFormat(String)} would treat the token as a tag instead of text
+     */
+    static boolean isTag(@Nonnull String token) {
+        return token.startsWith("click") || token.equals("/click")
+                || token.startsWith("hover") || token.equals("/hover")
+                || resolveColor(token).isPresent()
+                || token.startsWith("/") && resolveColor(token.replace("/", "")).isPresent()
+                || resolveDecoration(token).isPresent()
+                || token.startsWith("/") && resolveDecoration(token.replace("/", "")).isPresent();
     }
 
     @Nonnull
-    private static List<String> tokenize(@Nonnull String input) {
+    static List<String> tokenize(@Nonnull String input) {
         List<String> result = new ArrayList<>();
         StringBuilder buffer = new StringBuilder();
         boolean skip = false;
@@ -55,6 +55,11 @@ public enum LangKey implements Translatable {
     GAME_YOU_CANNOT_BE_IN_MULTIPLE_GAMES("{red}You are already in a game! Please leave the game before joining a new one."),
     GAME_COULD_NOT_FIND_GAME("{red}Could not find game {yellow}{game}", "game"),
     GAME_TOO_FEW_PLAYERS("{red}There are too few players left to continue"),
+    GAME_QUEUE_JOINED("{aqua}You joined the {yellow}{mode}{aqua} queue, {yellow}{size}{aqua} players are waiting", "mode", "size"),
+    GAME_QUEUE_ALREADY_QUEUED("{red}You are already waiting in that queue"),
+    GAME_QUEUE_LEFT("{aqua}You left the queue"),
+    GAME_QUEUE_NOT_QUEUED("{red}You are not waiting in any queue"),
+    GAME_QUEUE_MATCH_FOUND("{green}Match found! Joining {yellow}{mode}", "mode"),
 
     GAME_ANNOUNCE_GAME_STARTED("{yellow}{name}{aqua} has started a new round of {yellow}{mode}. {click:run_command:{command}}{aqua}Click here to join!{/click}", "command", "name", "mode"),
 
@@ -146,6 +151,9 @@ public enum LangKey implements Translatable {
             "{red}Error while saving the world config, {yellow}{msg}:{exception}", "msg", "exception"),
     WORLD_CREATOR_SAVE_ZIP_ERROR("{red}Error while zipping the world, {yellow}{msg}:{exception}",
             "msg", "exception"),
+    WORLD_CREATOR_SCAN_PROGRESS("{aqua}Scanned {yellow}{done}{aqua}/{yellow}{total}{aqua} chunks for markers", "done", "total"),
+    WORLD_CREATOR_SCAN_ERROR("{red}Error while scanning the world for markers, {yellow}{msg}:{exception}",
+            "msg", "exception"),
     WORLD_CREATOR_WRONG_STEP(
             "{red}You are trying to do the wrong step! You are at step {yellow}{step}{red}, you want to do step {yellow}{entered}{red}!",
             "step", "entered"),
@@ -179,6 +187,8 @@ public enum LangKey implements Translatable {
     STATS_INCREMENT("{aqua}Decremented {yellow}{type}{aqua} of {yellow}{user} to {yellow}{val}", "user", "type", "val"),
     STATS_TOP_HEADER("{gold}==== {aqua}Listing top {count} for type {yellow}{type}{gold} ====", "count", "type"),
     STATS_TOP_ENTRY("{yellow}#{pos}{aqua}: {name}{aqua} with {yellow}{val}", "pos", "name", "val"),
+    STATS_RANK("{yellow}{user}{aqua} is {yellow}#{rank}{aqua} for {yellow}{type}{aqua} with {yellow}{val}", "user", "rank", "type", "val"),
+    STATS_NOT_RANKED("{yellow}{user}{aqua} is not ranked for {yellow}{type}{aqua} yet", "user", "type"),
 
     // STATS
     STAT_JOIN_COUNT_NAME("Join count"),
@@ -6,6 +6,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
@@ -34,6 +36,7 @@ public class LangStorage {
     protected final OrderedProperties messages = new OrderedProperties();
     @Nullable
     private LangStorage parentStorage;
+    private final Map<Translatable, LangTemplate> templates = new ConcurrentHashMap<>();
 
     private Translatable translatable;
 
@@ -80,6 +83,7 @@ public class LangStorage {
         for (Translatable key : translatable.getValues()) {
             messages.setProperty(key.name(), key.getDefaultValue());
         }
+        templates.clear();
         try {
             messages.store(new FileWriter(langFile),
                     "This is a command. I don't really know what this is supposed to do, but lets see!\nLets throw in\nsome newlines!");
@@ -104,6 +108,7 @@ public class LangStorage {
         }
 
         if (counter > 0) {
+            templates.clear();
             try {
                 messages.store(new FileWriter(langFile),
                         "This is a command. I don't really know what this is supposed to do, but lets see!\nLets throw in\nsome newlines!");
@@ -132,6 +137,7 @@ public class LangStorage {
         } catch (IOException e) {
             throw new LangException("Could not find lang file for locale" + locale, e);
         }
+        templates.clear();
     }
 
     /**
@@ -158,6 +164,18 @@ public class LangStorage {
         return message;
     }
 
+    /**
+     * Gets the compiled translation for a key. Every key is only compiled once, until the messages are loaded again.
+     *
+     * @param key the key that should be translated
+     * @return the compiled translation for that key
+     * @see #get(Translatable)
+     */
+    @Nonnull
+    public LangTemplate getTemplate(@Nonnull Translatable key) {
+        return templates.computeIfAbsent(key, k -> LangTemplate.compile(get(k), k.getArgs()));
+    }
+
     /**
      * @return the file that this storage saves its keys in
      */
@@ -0,0 +1,242 @@
+package com.voxelgameslib.voxelgameslib.internal.lang;
+
+import net.kyori.text.TextComponent;
+import net.kyori.text.event.ClickEvent;
+import net.kyori.text.event.HoverEvent;
+import net.kyori.text.format.TextColor;
+import net.kyori.text.format.TextDecoration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A translation that was parsed once, so it can be rendered without tokenizing it again. The placeholders of the
+ * translatable are turned into argument slots that are filled in when rendering.<br> Produces the same components as
+ * replacing the placeholders and passing the result to {@link LangFormatter#parseFormat(String)}. When that can't be
+ * guaranteed (the translation uses String.format or an argument contains markup), {@link #render(String[])} returns
+ * empty and the caller needs to use the parser.
+ */
+public class LangTemplate {
+
+    /**
+     * the first char of the private use area, slot i is marked by SLOT + i in the compiled strings
+     */
+    private static final char SLOT = '\uE000';
+
+    private final List<Node> nodes;
+    private final boolean parseOnly;
+
+    private LangTemplate(@Nonnull List<Node> nodes, boolean parseOnly) {
+        this.nodes = nodes;
+        this.parseOnly = parseOnly;
+    }
+
+    /**
+     * Compiles the translation
+     *
+     * @param string the translation, with placeholders
+     * @param args   the names of the placeholders, in the order of the arguments
+     * @return the compiled template
+     */
+    @Nonnull
+    public static LangTemplate compile(@Nonnull String string, @Nonnull String[] args) {
+        if (string.indexOf('%') != -1) {
+            return new LangTemplate(new ArrayList<>(), true);
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (isSlot(string.charAt(i), args.length)) {
+                return new LangTemplate(new ArrayList<>(), true);
+            }
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            string = string.replace("{" + args[i] + "}", String.valueOf((char) (SLOT + i)));
+        }
+
+        // same as LangFormatter#parseFormat, but the current state is captured instead of building the components
+        List<Node> nodes = new ArrayList<>();
+        Deque<Slot<ClickEvent>> clickEvents = new ArrayDeque<>();
+        Deque<Slot<HoverEvent>> hoverEvents = new ArrayDeque<>();
+        Deque<TextColor> colors = new ArrayDeque<>();
+        Deque<TextDecoration> decorations = new ArrayDeque<>();
+
+        for (String token : LangFormatter.tokenize(string)) {
+            if (token.startsWith("click")) {
+                clickEvents.push(new Slot<>(token, args.length, LangFormatter::handleClick));
+            } else if (token.equals("/click")) {
+                clickEvents.pop();
+            } else if (token.startsWith("hover")) {
+                hoverEvents.push(new Slot<>(token, args.length, LangFormatter::handleHover));
+            } else if (token.equals("/hover")) {
+                hoverEvents.pop();
+            } else if (LangFormatter.resolveColor(token).isPresent()) {
+                colors.push(LangFormatter.handleColor(token));
+            } else if (token.startsWith("/") && LangFormatter.resolveColor(token.replace("/", "")).isPresent()) {
+                colors.pop();
+            } else if (LangFormatter.resolveDecoration(token).isPresent()) {
+                decorations.push(LangFormatter.handleDecoration(token));
+            } else if (token.startsWith("/") && LangFormatter.resolveDecoration(token.replace("/", "")).isPresent()) {
+                decorations.pop();
+            } else if (!token.equals("")) {
+                nodes.add(new Node(token, hasSlots(token, args.length), clickEvents.peek(), hoverEvents.peek(),
+                        colors.peek(), decorations.peek()));
+            }
+        }
+
+        return new LangTemplate(nodes, false);
+    }
+
+    /**
+     * Renders the template
+     *
+     * @param values the string form of the arguments
+     * @return the rendered component, or empty if the template can't render these values and the parser needs to be
+     * used
+     */
+    @Nonnull
+    public Optional<TextComponent> render(@Nonnull String[] values) {
+        if (parseOnly) {
+            return Optional.empty();
+        }
+        for (String value : values) {
+            // would change the markup, the quotes the tokenizer drops next to tags or the String.format the parser
+            // goes through
+            if (value.indexOf('{') != -1 || value.indexOf('}') != -1 || value.indexOf('"') != -1
+                    || value.indexOf('%') != -1) {
+                return Optional.empty();
+            }
+        }
+
+        TextComponent.Builder builder = TextComponent.builder("");
+        for (Node node : nodes) {
+            if (node.fixed != null) {
+                builder.append(node.fixed);
+                continue;
+            }
+
+            String content = fill(node.text, values);
+            if (content.isEmpty()) {
+                continue;
+            }
+            if (LangFormatter.isTag(content)) {
+                // the argument turns this text into a tag
+                return Optional.empty();
+            }
+            builder.append(node.build(content, values));
+        }
+        // the parser always ends with an empty component
+        builder.append(TextComponent.of(""));
+        return Optional.of(builder.build());
+    }
+
+    private static boolean hasSlots(@Nonnull String string, int slots) {
+        for (int i = 0; i < string.length(); i++) {
+            if (isSlot(string.charAt(i), slots)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSlot(char c, int slots) {
+        return c >= SLOT && c < SLOT + slots;
+    }
+
+    @Nonnull
+    private static String fill(@Nonnull String string, @Nonnull String[] values) {
+        StringBuilder sb = new StringBuilder(string.length() + 16);
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (isSlot(c, values.length)) {
+                sb.append(values[c - SLOT]);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A text token together with the formatting that was active for it
+     */
+    private static final class Node {
+
+        private final String text;
+        @Nullable
+        private final Slot<ClickEvent> clickEvent;
+        @Nullable
+        private final Slot<HoverEvent> hoverEvent;
+        @Nullable
+        private final TextColor color;
+        @Nullable
+        private final TextDecoration decoration;
+        /**
+         * the finished component, if neither the text nor the events depend on the arguments
+         */
+        @Nullable
+        private final TextComponent fixed;
+
+        private Node(@Nonnull String text, boolean dynamic, @Nullable Slot<ClickEvent> clickEvent,
+                     @Nullable Slot<HoverEvent> hoverEvent, @Nullable TextColor color,
+                     @Nullable TextDecoration decoration) {
+            this.text = text;
+            this.clickEvent = clickEvent;
+            this.hoverEvent = hoverEvent;
+            this.color = color;
+            this.decoration = decoration;
+            boolean fixedEvents = (clickEvent == null || clickEvent.isFixed())
+                    && (hoverEvent == null || hoverEvent.isFixed());
+            this.fixed = dynamic || !fixedEvents ? null : build(text, new String[0]);
+        }
+
+        @Nonnull
+        private TextComponent build(@Nonnull String content, @Nonnull String[] values) {
+            TextComponent.Builder current = TextComponent.builder(content);
+            if (clickEvent != null) {
+                current.clickEvent(clickEvent.get(values));
+            }
+            if (hoverEvent != null) {
+                current.hoverEvent(hoverEvent.get(values));
+            }
+            if (color != null) {
+                current.color(color);
+            }
+            if (decoration != null) {
+                current.decoration(decoration, true);
+            }
+            return current.build();
+        }
+    }
+
+    /**
+     * A click or hover event, created once if its token doesn't contain arguments
+     */
+    private static final class Slot<T> {
+
+        private final String token;
+        private final Function<String, T> handler;
+        @Nullable
+        private final T fixed;
+
+        private Slot(@Nonnull String token, int slots, @Nonnull Function<String, T> handler) {
+            this.token = token;
+            this.handler = handler;
+            this.fixed = hasSlots(token, slots) ? null : handler.apply(token);
+        }
+
+        private boolean isFixed() {
+            return fixed != null;
+        }
+
+        @Nonnull
+        private T get(@Nonnull String[] values) {
+            return fixed != null ? fixed : handler.apply(fill(token, values));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.voxelgameslib.voxelgameslib.internal.math;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A static 3d tree for nearest neighbour lookups. Built once, can't be modified afterwards.
+ *
+ * @param <T> the type of the values that are attached to the points
+ */
+public class KdTree<T> {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final Object[] values;
+
+    /**
+     * @param points the points
+     * @param values the value for every point, same order and size as the points
+     */
+    public KdTree(@Nonnull List<Vector3D> points, @Nonnull List<T> values) {
+        if (points.size() != values.size()) {
+            throw new IllegalArgumentException("Got " + points.size() + " points but " + values.size() + " values");
+        }
+
+        Integer[] order = new Integer[points.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        build(points, order, 0, order.length, 0);
+
+        xs = new double[order.length];
+        ys = new double[order.length];
+        zs = new double[order.length];
+        this.values = new Object[order.length];
+        for (int i = 0; i < order.length; i++) {
+            Vector3D point = points.get(order[i]);
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+            zs[i] = point.getZ();
+            this.values[i] = values.get(order[i]);
+        }
+    }
+
+    private static void build(@Nonnull List<Vector3D> points, @Nonnull Integer[] order, int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+
+        Comparator<Integer> comparator;
+        switch (depth % 3) {
+            case 0:
+                comparator = Comparator.comparingDouble(i -> points.get(i).getX());
+                break;
+            case 1:
+                comparator = Comparator.comparingDouble(i -> points.get(i).getY());
+                break;
+            default:
+                comparator = Comparator.comparingDouble(i -> points.get(i).getZ());
+        }
+        Arrays.sort(order, from, to, comparator);
+
+        int mid = (from + to) >>> 1;
+        build(points, order, from, mid, depth + 1);
+        build(points, order, mid + 1, to, depth + 1);
+    }
+
+    /**
+     * @param point the point to search from
+     * @return the value of the nearest point, null if the tree is empty
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T nearest(@Nonnull Vector3D point) {
+        int index = nearestIndex(point.getX(), point.getY(), point.getZ());
+        return index == -1 ? null : (T) values[index];
+    }
+
+    /**
+     * @param point the point to search from
+     * @return the squared distance to the nearest point, {@link Double#MAX_VALUE} if the tree is empty
+     */
+    public double nearestDistanceSquared(@Nonnull Vector3D point) {
+        int index = nearestIndex(point.getX(), point.getY(), point.getZ());
+        return index == -1 ? Double.MAX_VALUE : distanceSquared(index, point.getX(), point.getY(), point.getZ());
+    }
+
+    private int nearestIndex(double x, double y, double z) {
+        if (values.length == 0) {
+            return -1;
+        }
+        // [0] = index, [1] = squared distance
+        double[] best = {-1, Double.MAX_VALUE};
+        search(0, values.length, 0, x, y, z, best);
+        return (int) best[0];
+    }
+
+    private void search(int from, int to, int depth, double x, double y, double z, @Nonnull double[] best) {
+        if (from >= to) {
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        double distance = distanceSquared(mid, x, y, z);
+        if (distance < best[1]) {
+            best[0] = mid;
+            best[1] = distance;
+        }
+
+        double diff;
+        switch (depth % 3) {
+            case 0:
+                diff = x - xs[mid];
+                break;
+            case 1:
+                diff = y - ys[mid];
+                break;
+            default:
+                diff = z - zs[mid];
+        }
+
+        // search the side the point is on first, the other one only if it can contain something closer
+        if (diff < 0) {
+            search(from, mid, depth + 1, x, y, z, best);
+            if (diff * diff < best[1]) {
+                search(mid + 1, to, depth + 1, x, y, z, best);
+            }
+        } else {
+            search(mid + 1, to, depth + 1, x, y, z, best);
+            if (diff * diff < best[1]) {
+                search(from, mid, depth + 1, x, y, z, best);
+            }
+        }
+    }
+
+    private double distanceSquared(int index, double x, double y, double z) {
+        double dx = xs[index] - x;
+        double dy = ys[index] - y;
+        double dz = zs[index] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * @return the number of points in this tree
+     */
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,227 @@
+package com.voxelgameslib.voxelgameslib.internal.math;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A sorted set that also knows the position of every element. Implemented as a treap where every node knows the size
+ * of its subtree, so insert, remove, rank and get by index all take O(log n). Elements that compare as equal are the
+ * same element. Not thread safe.
+ *
+ * @param <T> the type of the elements
+ */
+public class OrderStatisticTree<T> {
+
+    private final Comparator<? super T> comparator;
+    @Nullable
+    private Node<T> root;
+
+    /**
+     * @param comparator the order of the elements
+     */
+    public OrderStatisticTree(@Nonnull Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Adds the element, if it isn't in the tree already
+     *
+     * @param value the element to add
+     * @return true if the element was added
+     */
+    public boolean add(@Nonnull T value) {
+        if (contains(value)) {
+            return false;
+        }
+        Node<T>[] parts = split(root, value, false);
+        root = merge(merge(parts[0], new Node<>(value)), parts[1]);
+        return true;
+    }
+
+    /**
+     * Removes the element
+     *
+     * @param value the element to remove
+     * @return true if the element was in the tree
+     */
+    public boolean remove(@Nonnull T value) {
+        // [ < value ] [ >= value ] -> [ < value ] [ == value ] [ > value ]
+        Node<T>[] lower = split(root, value, false);
+        Node<T>[] upper = split(lower[1], value, true);
+        root = merge(lower[0], upper[1]);
+        return upper[0] != null;
+    }
+
+    /**
+     * @param value the element to look for
+     * @return true if the element is in the tree
+     */
+    public boolean contains(@Nonnull T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * @param value the element
+     * @return the number of elements that are smaller than the element, which is the index of the element if it is in
+     * the tree
+     */
+    public int rank(@Nonnull T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @param index the index of the element, 0 is the smallest
+     * @return the element at that index
+     * @throws IndexOutOfBoundsException if the index is not smaller than the size
+     */
+    @Nonnull
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " size " + size());
+        }
+
+        Node<T> node = root;
+        while (true) {
+            int left = size(node.left);
+            if (index < left) {
+                node = node.left;
+            } else if (index == left) {
+                return node.value;
+            } else {
+                index -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @param amount the max number of elements
+     * @return the smallest elements, in order
+     */
+    @Nonnull
+    public List<T> first(int amount) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(amount, size())));
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (result.size() < amount && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(node.value);
+            node = node.right;
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Removes all elements
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Splits the tree into the elements smaller than the value (or smaller or equal if inclusive) and the rest
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private Node<T>[] split(@Nullable Node<T> node, @Nonnull T value, boolean inclusive) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        int cmp = comparator.compare(node.value, value);
+        if (cmp < 0 || (inclusive && cmp == 0)) {
+            Node<T>[] parts = split(node.right, value, inclusive);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        } else {
+            Node<T>[] parts = split(node.left, value, inclusive);
+            node.left = parts[1];
+            node.update();
+            parts[1] = node;
+            return parts;
+        }
+    }
+
+    /**
+     * Merges two trees, all elements of the first one need to be smaller than the ones in the second one
+     */
+    @Nullable
+    private Node<T> merge(@Nullable Node<T> left, @Nullable Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        @Nullable
+        private Node<T> left;
+        @Nullable
+        private Node<T> right;
+
+        private Node(@Nonnull T value) {
+            this.value = value;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import net.kyori.text.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
+import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+import com.voxelgameslib.voxelgameslib.util.Pair;
+
+/**
+ * Runs the calls of a blocking {@link PersistenceProvider} on an I/O executor. Works for every provider (hibernate,
+ * log and the empty one), the empty provider is answered right away since it never touches the disk.
+ */
+public class AsyncPersistenceAdapter implements AsyncPersistenceProvider {
+
+    private final PersistenceProvider provider;
+    private final Executor executor;
+    private final boolean empty;
+
+    /**
+     * @param provider the blocking provider to wrap
+     * @param executor the executor the blocking calls should run on
+     */
+    public AsyncPersistenceAdapter(@Nonnull PersistenceProvider provider, @Nonnull Executor executor) {
+        this.provider = provider;
+        this.executor = executor;
+        this.empty = provider instanceof EmptyPersistenceProvider;
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> saveUser(@Nonnull UserData user) {
+        return run(() -> provider.saveUser(user));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> saveUsers(@Nonnull Collection<UserData> users) {
+        // copy, the caller might reuse the collection
+        List<UserData> copy = new ArrayList<>(users);
+        return run(() -> provider.saveUsers(copy));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> saveStats(@Nonnull Collection<StatInstance> stats) {
+        List<StatInstance> copy = new ArrayList<>(stats);
+        return run(() -> provider.saveStats(copy));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<UserData>> loadUser(@Nonnull UUID id) {
+        if (empty) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> provider.loadUser(id), executor);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<List<Pair<Component, Double>>> getTopWithName(@Nonnull Trackable type, int amount) {
+        if (empty) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        return CompletableFuture.supplyAsync(() -> provider.getTopWithName(type, amount), executor);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<List<Pair<UUID, Double>>> getTopWithUUID(@Nonnull Trackable type, int amount) {
+        if (empty) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        return CompletableFuture.supplyAsync(() -> provider.getTopWithUUID(type, amount), executor);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Map<UUID, Component>> getDisplayNames(@Nonnull Collection<UUID> ids) {
+        if (empty) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+        List<UUID> copy = new ArrayList<>(ids);
+        return CompletableFuture.supplyAsync(() -> provider.getDisplayNames(copy), executor);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> saveGame(@Nonnull GameData gameData) {
+        return run(() -> provider.saveGame(gameData));
+    }
+
+    @Nonnull
+    private CompletableFuture<Void> run(@Nonnull Runnable runnable) {
+        if (empty) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(runnable, executor);
+    }
+
+    /**
+     * @return the blocking provider that is wrapped by this adapter
+     */
+    @Nonnull
+    public PersistenceProvider getProvider() {
+        return provider;
+    }
+}
@@ -0,0 +1,99 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import net.kyori.text.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
+import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+import com.voxelgameslib.voxelgameslib.util.Pair;
+
+/**
+ * Non blocking version of the {@link PersistenceProvider}. All methods return right away, the work is done on an I/O
+ * thread. The futures complete on that I/O thread too, so callbacks that touch the world need to hop back onto the main
+ * thread.
+ */
+public interface AsyncPersistenceProvider {
+
+    /**
+     * Persists the data of a user
+     *
+     * @param user the user data to persist
+     * @return a future that completes once the data was written
+     */
+    @Nonnull
+    CompletableFuture<Void> saveUser(@Nonnull UserData user);
+
+    /**
+     * Persists the data of multiple users at once
+     *
+     * @param users the user data to persist
+     * @return a future that completes once the data was written
+     */
+    @Nonnull
+    CompletableFuture<Void> saveUsers(@Nonnull Collection<UserData> users);
+
+    /**
+     * Updates the values of the given stats
+     *
+     * @param stats the stats to update
+     * @return a future that completes once the data was written
+     */
+    @Nonnull
+    CompletableFuture<Void> saveStats(@Nonnull Collection<StatInstance> stats);
+
+    /**
+     * Tries to load the data for a user based on a uuid
+     *
+     * @param id the uuid of the user data
+     * @return a future with the UserData, if present
+     */
+    @Nonnull
+    CompletableFuture<Optional<UserData>> loadUser(@Nonnull UUID id);
+
+    /**
+     * Gets a list of the top users for the given type. A user is represented by his display name
+     *
+     * @param type   the type to get the top users for
+     * @param amount the number of users to fetch
+     * @return a future with the top list for the given type
+     */
+    @Nonnull
+    CompletableFuture<List<Pair<Component, Double>>> getTopWithName(@Nonnull Trackable type, int amount);
+
+    /**
+     * Gets a list of the top users for the given type. A user is represented by his uuid
+     *
+     * @param type   the type to get the top users for
+     * @param amount the number of users to fetch
+     * @return a future with the top list for the given type
+     */
+    @Nonnull
+    CompletableFuture<List<Pair<UUID, Double>>> getTopWithUUID(@Nonnull Trackable type, int amount);
+
+    /**
+     * Gets the display names of the users
+     *
+     * @param ids the uuids of the users
+     * @return a future with the display names of the users that are known, by uuid
+     */
+    @Nonnull
+    CompletableFuture<Map<UUID, Component>> getDisplayNames(@Nonnull Collection<UUID> ids);
+
+    /**
+     * Saves the state of a game
+     *
+     * @param gameData the game data to save
+     * @return a future that completes once the data was written
+     */
+    @Nonnull
+    CompletableFuture<Void> saveGame(@Nonnull GameData gameData);
+}
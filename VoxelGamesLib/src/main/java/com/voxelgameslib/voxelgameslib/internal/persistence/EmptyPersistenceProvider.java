@@ -3,11 +3,15 @@ package com.voxelgameslib.voxelgameslib.internal.persistence;
 import net.kyori.text.Component;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import javax.annotation.Nonnull;
 
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
 import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
 import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
 import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
@@ -33,6 +37,11 @@ public class EmptyPersistenceProvider implements PersistenceProvider {
         // ignore
     }
 
+    @Override
+    public void saveStats(@Nonnull Collection<StatInstance> stats) {
+        // ignore
+    }
+
     @Override
     @Nonnull
     public Optional<UserData> loadUser(@Nonnull UUID id) {
@@ -49,6 +58,11 @@ public class EmptyPersistenceProvider implements PersistenceProvider {
         return new ArrayList<>();
     }
 
+    @Override
+    public Map<UUID, Component> getDisplayNames(@Nonnull Collection<UUID> ids) {
+        return new HashMap<>();
+    }
+
     @Override
     public void saveGame(GameData gameData) {
         // ignore
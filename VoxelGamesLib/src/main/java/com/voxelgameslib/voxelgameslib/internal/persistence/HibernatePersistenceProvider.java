@@ -8,15 +8,18 @@ import net.kyori.text.Component;
 
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
-import org.hibernate.exception.JDBCConnectionException;
 import org.hibernate.query.Query;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.logging.Logger;
@@ -26,7 +29,9 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.persistence.Entity;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.sql.DataSource;
 
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
 import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
 import com.voxelgameslib.voxelgameslib.internal.config.ConfigHandler;
 import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
@@ -62,6 +67,10 @@ public class HibernatePersistenceProvider implements PersistenceProvider {
 
     private SessionFactory sessionFactory;
     private CriteriaBuilder cBuilder;
+    @Nullable
+    private DataSource dataSource;
+    @Nullable
+    private volatile PoolMetrics poolMetrics;
 
     @Override
     public void enable() {
@@ -74,12 +83,22 @@ public class HibernatePersistenceProvider implements PersistenceProvider {
         startupHandler.registerService("Hibernate");
 
         Thread thread = new Thread(() -> {
-            StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
-                    // credentials and stuff
-                    .applySetting("hibernate.connection.username", config.persistence.user)
-                    .applySetting("hibernate.connection.password", config.persistence.pass)
-                    .applySetting("hibernate.connection.driver_class", config.persistence.driver)
-                    .applySetting("hibernate.connection.url", config.persistence.url + "?useSSL=false")
+            StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder();
+            if (HikariPool.isAvailable()) {
+                // connections come from the hikari pool
+                poolMetrics = new PoolMetrics();
+                dataSource = HikariPool.create(config.persistence, poolMetrics);
+                builder.applySetting("hibernate.connection.datasource", dataSource);
+            } else {
+                log.warning("HikariCP is not installed, falling back to the connection pool of hibernate");
+                builder.applySetting("hibernate.connection.username", config.persistence.user)
+                        .applySetting("hibernate.connection.password", config.persistence.pass)
+                        .applySetting("hibernate.connection.driver_class", config.persistence.driver)
+                        .applySetting("hibernate.connection.url", config.persistence.url + "?useSSL=false")
+                        .applySetting("hibernate.connection.pool_size", config.persistence.pool_size + "");
+            }
+
+            StandardServiceRegistry registry = builder
                     .applySetting("hibernate.dialect", config.persistence.dialect)
                     // misc settings
                     .applySetting("hibernate.hbm2ddl.auto", shouldCreateTable ? "create" : "update")
@@ -87,11 +106,10 @@ public class HibernatePersistenceProvider implements PersistenceProvider {
                     //TODO apparently this is an anti-pattern [0], but it fixes an issue so ¯\_(ツ)_/¯
                     // [0]: https://vladmihalcea.com/2016/09/05/the-hibernate-enable_lazy_load_no_trans-anti-pattern/
                     .applySetting("hibernate.enable_lazy_load_no_trans", true)
-                    .applySetting("hibernate.connection.autocommit", true)
-                    // connection pool
-                    .applySetting("hibernate.connection.pool_size", config.persistence.pool_size + "")
-                    //TODO figure out how to use hikari with hibernate
-                    //.applySetting("hibernate.connection.provider_class","com.zaxxer.hikari.hibernate.HikariConnectionProvider")
+                    // batching, used by the write behind queue
+                    .applySetting("hibernate.jdbc.batch_size", config.persistence.batchSize + "")
+                    .applySetting("hibernate.order_inserts", true)
+                    .applySetting("hibernate.order_updates", true)
                     .build();
 
             MetadataSources sources = new MetadataSources(registry);
@@ -132,12 +150,23 @@ public class HibernatePersistenceProvider implements PersistenceProvider {
 
     @Override
     public void saveUser(@Nonnull UserData user) {
-        session(session -> {
+        transaction(session -> {
             session.saveOrUpdate(user);
             return null;
         });
     }
 
+    @Override
+    public void saveUsers(@Nonnull Collection<UserData> users) {
+        batch(users);
+    }
+
+    @Override
+    public void saveStats(@Nonnull Collection<StatInstance> stats) {
+        // the stats have an id, so this is a batch of updates of the stat rows only
+        batch(stats);
+    }
+
     @Override
     @Nonnull
     public Optional<UserData> loadUser(@Nonnull UUID id) {
@@ -181,48 +210,111 @@ public class HibernatePersistenceProvider implements PersistenceProvider {
         });
     }
 
+    @Override
+    public Map<UUID, Component> getDisplayNames(@Nonnull Collection<UUID> ids) {
+        Map<UUID, Component> result = new HashMap<>();
+        List<UUID> list = new ArrayList<>(ids);
+        // keep the in clause at a sane size
+        for (int i = 0; i < list.size(); i += 1000) {
+            List<UUID> chunk = list.subList(i, Math.min(list.size(), i + 1000));
+            session(session -> {
+                Query query = session.createQuery("select user.uuid, user.displayName from UserData user\n" +
+                        "where user.uuid in :ids");
+                query.setParameter("ids", chunk);
+                //noinspection unchecked
+                for (Object[] row : (List<Object[]>) query.getResultList()) {
+                    if (row[1] != null) {
+                        result.put((UUID) row[0], (Component) row[1]);
+                    }
+                }
+                return null;
+            });
+        }
+        return result;
+    }
+
     @Override
     public void saveGame(GameData gameData) {
-        session(session -> {
+        transaction(session -> {
             session.saveOrUpdate(gameData);
             return null;
         });
     }
 
-    @Nullable
-    @SuppressWarnings("Duplicates")
-    private <T> T session(@Nonnull SessionExecutor<T> executor) {
-        try (Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
+    @Override
+    public void saveGames(@Nonnull Collection<GameData> games) {
+        batch(games);
+    }
 
-            T t = executor.execute(session);
+    /**
+     * Writes all entities in one transaction. Throws if the transaction could not be committed, so that the caller can
+     * try again later.
+     */
+    private void batch(@Nonnull Collection<?> entities) {
+        int batchSize = Math.max(1, config.persistence.batchSize);
+        transaction(session -> {
+            int i = 0;
+            for (Object entity : entities) {
+                session.saveOrUpdate(entity);
+                if (++i % batchSize == 0) {
+                    // send the jdbc batch and keep the session small
+                    session.flush();
+                    session.clear();
+                }
+            }
+            return null;
+        });
+    }
 
-            session.getTransaction().commit();
-            session.close();
+    /**
+     * Runs the executor in a transaction and reports errors instead of throwing them. Only for reads, writes need to use
+     * {@link #transaction(SessionExecutor)} so that the caller knows when they failed.
+     */
+    @Nullable
+    private <T> T session(@Nonnull SessionExecutor<T> executor) {
+        try {
+            return transaction(executor);
+        } catch (Exception ex) {
+            errorHandler.handle(ex, Severity.ERROR, true);
+            return null;
+        }
+    }
 
-            return t;
-        } catch (JDBCConnectionException ex) {
-            log.finer("DB connection error, retrying... (" + ex.getMessage() + ")");
-            // retry
-            try (Session session = sessionFactory.openSession()) {
-                session.beginTransaction();
+    /**
+     * Runs the executor in a transaction. The transaction is rolled back and the error is thrown if anything fails.
+     */
+    @Nullable
+    private <T> T transaction(@Nonnull SessionExecutor<T> executor) {
+        if (sessionFactory == null) {
+            throw new IllegalStateException("Hibernate is not started (yet)");
+        }
 
+        // no retry on connection errors, hikari only hands out validated connections and failed writes are retried
+        // by the callers
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
                 T t = executor.execute(session);
-
-                session.getTransaction().commit();
-                session.close();
-
+                transaction.commit();
                 return t;
-            } catch (Exception e) {
-                errorHandler.handle(ex, Severity.ERROR, true);
-                return null;
+            } catch (RuntimeException ex) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw ex;
             }
-        } catch (Exception ex) {
-            errorHandler.handle(ex, Severity.ERROR, true);
-            return null;
         }
     }
 
+    /**
+     * @return the metrics of the connection pool, empty if hibernate manages the connections itself (HikariCP is not
+     * installed or the provider is not started yet)
+     */
+    @Nonnull
+    public Optional<PoolMetrics> getPoolMetrics() {
+        return Optional.ofNullable(poolMetrics);
+    }
+
     @FunctionalInterface
     interface SessionExecutor<T> {
 
@@ -235,5 +327,8 @@ public class HibernatePersistenceProvider implements PersistenceProvider {
         if (sessionFactory != null) {
             sessionFactory.close();
         }
+        if (dataSource != null) {
+            HikariPool.close(dataSource);
+        }
     }
 }
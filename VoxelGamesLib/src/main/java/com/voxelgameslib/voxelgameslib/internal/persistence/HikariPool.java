@@ -0,0 +1,72 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+
+/**
+ * Creates the HikariCP connection pool. All references to HikariCP are kept in here and in {@link PoolMetrics}, so
+ * that the hibernate provider still loads when HikariCP is not on the classpath. Check {@link #isAvailable()} before
+ * touching this class.
+ */
+final class HikariPool {
+
+    private static final String DATA_SOURCE_CLASS = "com.zaxxer.hikari.HikariDataSource";
+
+    private HikariPool() {
+    }
+
+    /**
+     * @return true if HikariCP can be loaded
+     */
+    static boolean isAvailable() {
+        try {
+            Class.forName(DATA_SOURCE_CLASS, false, HikariPool.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the pool
+     *
+     * @param config  the persistence config
+     * @param metrics the metrics the pool should report to
+     * @return the pool, needs to be closed when the provider is disabled
+     */
+    @Nonnull
+    static DataSource create(@Nonnull PersistenceConfig config, @Nonnull PoolMetrics metrics) {
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("VGL-Hikari");
+        hikari.setDriverClassName(config.driver);
+        hikari.setJdbcUrl(config.url + "?useSSL=false");
+        hikari.setUsername(config.user);
+        hikari.setPassword(config.pass);
+        hikari.setMaximumPoolSize(config.pool_size);
+        hikari.setMinimumIdle(Math.min(config.minIdle, config.pool_size));
+        hikari.setConnectionTimeout(config.connectionTimeout);
+        hikari.setValidationTimeout(config.validationTimeout);
+        hikari.setMaxLifetime(config.maxLifetime);
+        hikari.setLeakDetectionThreshold(config.leakDetectionThreshold);
+        hikari.setMetricsTrackerFactory(metrics);
+        // mysql driver tuning, ignored by other drivers
+        hikari.addDataSourceProperty("cachePrepStmts", "true");
+        hikari.addDataSourceProperty("prepStmtCacheSize", "250");
+        hikari.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        hikari.addDataSourceProperty("useServerPrepStmts", "true");
+        hikari.addDataSourceProperty("rewriteBatchedStatements", "true");
+        return new HikariDataSource(hikari);
+    }
+
+    /**
+     * Closes a pool that was created by {@link #create(PersistenceConfig, PoolMetrics)}
+     *
+     * @param dataSource the pool
+     */
+    static void close(@Nonnull DataSource dataSource) {
+        ((HikariDataSource) dataSource).close();
+    }
+}
@@ -0,0 +1,183 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+
+/**
+ * An append only file of records. Every record is framed as <code>[int length][int crc32][payload]</code>, so a record
+ * that was only partially written (because the server crashed) is detected when the file is opened and cut off.<br>
+ * Not thread safe, the caller needs to synchronize.
+ */
+public class LogFile implements Closeable {
+
+    private static final Logger log = Logger.getLogger(LogFile.class.getName());
+    private static final int HEADER = 8;
+    private static final int MAX_RECORD = 16 * 1024 * 1024;
+
+    private final Path path;
+    private FileChannel channel;
+    private long size;
+
+    /**
+     * @param path the file to use, will be created if it doesn't exist
+     */
+    public LogFile(@Nonnull Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the file and passes every valid record to the visitor. Everything after the first invalid record is
+     * truncated.
+     *
+     * @param visitor called for every valid record, in order
+     * @throws IOException if the file couldn't be read
+     */
+    public void open(@Nonnull RecordVisitor visitor) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long fileSize = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (position + HEADER <= fileSize) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || length > MAX_RECORD || position + HEADER + length > fileSize) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            readFully(ByteBuffer.wrap(payload), position + HEADER);
+            if (crc(payload) != crc) {
+                break;
+            }
+
+            visitor.visit(position, HEADER + length, payload);
+            position += HEADER + length;
+        }
+
+        if (position != fileSize) {
+            log.warning("Found " + (fileSize - position) + " bytes of incomplete or corrupted data at the end of "
+                    + path.getFileName() + ", cutting them off");
+            channel.truncate(position);
+            channel.force(true);
+        }
+        size = position;
+    }
+
+    /**
+     * Appends a record to the end of the file
+     *
+     * @param payload the record to write
+     * @return the position of the record
+     * @throws IOException if the record couldn't be written
+     */
+    public long append(@Nonnull byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(crc(payload));
+        buffer.put(payload);
+        buffer.flip();
+
+        long position = size;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        size += HEADER + payload.length;
+        return position;
+    }
+
+    /**
+     * Reads the record at that position
+     *
+     * @param position the position that was returned by {@link #append(byte[])} or passed to the visitor
+     * @return the payload of the record
+     * @throws IOException if the record couldn't be read
+     */
+    @Nonnull
+    public byte[] read(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        readFully(header, position);
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+
+        byte[] payload = new byte[length];
+        readFully(ByteBuffer.wrap(payload), position + HEADER);
+        if (crc(payload) != crc) {
+            throw new IOException("Corrupted record at " + position + " in " + path.getFileName());
+        }
+        return payload;
+    }
+
+    /**
+     * Makes sure everything that was appended is on the disk
+     *
+     * @throws IOException if the file couldn't be synced
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the file this log is stored in
+     */
+    @Nonnull
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void readFully(@Nonnull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + path.getFileName() + " at " + position);
+            }
+        }
+    }
+
+    private static int crc(@Nonnull byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Gets called for every record while a log is opened
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+
+        /**
+         * @param position the position of the record
+         * @param size     the size of the record on the disk, including the header
+         * @param payload  the payload of the record
+         * @throws IOException if the record couldn't be processed
+         */
+        void visit(long position, int size, @Nonnull byte[] payload) throws IOException;
+    }
+}
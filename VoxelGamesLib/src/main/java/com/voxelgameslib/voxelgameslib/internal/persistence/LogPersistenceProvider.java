@@ -0,0 +1,573 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
+import net.kyori.text.serializer.ComponentSerializers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.voxelgameslib.voxelgameslib.api.role.Role;
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
+import com.voxelgameslib.voxelgameslib.api.stats.StatsHandler;
+import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
+import com.voxelgameslib.voxelgameslib.components.elo.RatingWrapper;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
+import com.voxelgameslib.voxelgameslib.internal.lang.Locale;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+import com.voxelgameslib.voxelgameslib.util.Pair;
+
+/**
+ * Persistence provider for small servers without a database. Every save appends one record to a log file, so a write
+ * costs as much as the record that changed. An in-memory index points to the latest record of every user and keeps the
+ * stat values for the top lists. The log is compacted in the background once most of it is outdated, and a record that
+ * was only partially written when the server crashed is cut off on the next start.
+ */
+@Singleton
+public class LogPersistenceProvider implements PersistenceProvider {
+
+    private static final Logger log = Logger.getLogger(LogPersistenceProvider.class.getName());
+
+    private static final byte USER = 1;
+    private static final byte STATS = 2;
+    private static final byte GAME = 3;
+
+    @Inject
+    @Named("DataFolder")
+    private File folder;
+    @Inject
+    private GlobalConfig config;
+
+    private LogFile logFile;
+    private final Map<UUID, Pointer> users = new HashMap<>();
+    private final Map<UUID, Pointer> games = new HashMap<>();
+    private final Map<UUID, Component> names = new HashMap<>();
+    private final Map<String, Map<UUID, Double>> statValues = new HashMap<>();
+    /**
+     * the size of the latest stats record of every user, compaction writes one per user
+     */
+    private final Map<UUID, Integer> statRecords = new HashMap<>();
+    private long liveBytes;
+
+    private ScheduledExecutorService compactor;
+
+    @Override
+    public void enable() {
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+
+        Path path = new File(folder, "persistence.log").toPath();
+        try {
+            // a compaction that didn't finish, the old log is still complete
+            Files.deleteIfExists(compactPath(path));
+            synchronized (this) {
+                logFile = new LogFile(path);
+                logFile.open(this::index);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open " + path, ex);
+        }
+        log.info("Loaded " + users.size() + " users and " + games.size() + " games from " + path.getFileName());
+
+        compactor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "VGL-LogCompactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, config.persistence.compactionInterval);
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, 0, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void disable() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+            compactor = null;
+        }
+
+        synchronized (this) {
+            try {
+                logFile.force();
+                logFile.close();
+            } catch (IOException ex) {
+                log.log(Level.WARNING, "Error while closing " + logFile.getPath(), ex);
+            }
+            users.clear();
+            games.clear();
+            names.clear();
+            statValues.clear();
+            statRecords.clear();
+        }
+    }
+
+    @Override
+    public void saveUser(@Nonnull UserData user) {
+        saveUsers(Collections.singletonList(user));
+    }
+
+    @Override
+    public synchronized void saveUsers(@Nonnull Collection<UserData> users) {
+        try {
+            for (UserData user : users) {
+                append(encodeUser(user));
+            }
+            sync();
+            // there are no ids in the log, so the stats need to be told that they don't need a user record anymore
+            users.forEach(user -> user.getStats().values().forEach(StatInstance::markPersisted));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not save " + users.size() + " users", ex);
+        }
+    }
+
+    @Override
+    public synchronized void saveStats(@Nonnull Collection<StatInstance> stats) {
+        Map<UUID, List<StatInstance>> byUser = new HashMap<>();
+        for (StatInstance stat : stats) {
+            byUser.computeIfAbsent(stat.getUuid(), (key) -> new ArrayList<>()).add(stat);
+        }
+
+        try {
+            for (Map.Entry<UUID, List<StatInstance>> entry : byUser.entrySet()) {
+                Map<String, Double> values = new HashMap<>();
+                entry.getValue().forEach(stat -> values.put(key(stat.getStatType()), stat.getVal()));
+                append(encodeStats(entry.getKey(), values));
+            }
+            sync();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not save " + stats.size() + " stats", ex);
+        }
+    }
+
+    @Override
+    @Nonnull
+    public synchronized Optional<UserData> loadUser(@Nonnull UUID id) {
+        Pointer pointer = users.get(id);
+        if (pointer == null) {
+            return Optional.empty();
+        }
+
+        try {
+            UserData data = decodeUser(new DataInputStream(new ByteArrayInputStream(logFile.read(pointer.position))));
+            // the stat records after the user record are newer
+            for (Map.Entry<String, Map<UUID, Double>> entry : statValues.entrySet()) {
+                Double val = entry.getValue().get(id);
+                if (val == null) {
+                    continue;
+                }
+                Optional<Trackable> type = StatsHandler.fromName(entry.getKey());
+                if (type.isPresent()) {
+                    StatInstance stat = new StatInstance(id, type.get(), val);
+                    stat.markPersisted();
+                    data.getStats().put(type.get(), stat);
+                }
+            }
+            return Optional.of(data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load user " + id, ex);
+        }
+    }
+
+    @Override
+    public synchronized List<Pair<Component, Double>> getTopWithName(Trackable type, int amount) {
+        List<Pair<Component, Double>> result = new ArrayList<>();
+        for (Pair<UUID, Double> entry : getTopWithUUID(type, amount)) {
+            Component name = names.get(entry.getFirst());
+            result.add(new Pair<>(name != null ? name : TextComponent.of(entry.getFirst().toString()), entry.getSecond()));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<Pair<UUID, Double>> getTopWithUUID(Trackable type, int amount) {
+        Map<UUID, Double> values = statValues.get(key(type));
+        if (values == null || amount <= 0) {
+            return new ArrayList<>();
+        }
+
+        // keep the best n in a min heap instead of sorting everything
+        PriorityQueue<Map.Entry<UUID, Double>> top = new PriorityQueue<>(amount + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Double> entry : values.entrySet()) {
+            top.add(entry);
+            if (top.size() > amount) {
+                top.poll();
+            }
+        }
+
+        List<Pair<UUID, Double>> result = new ArrayList<>(top.size());
+        top.stream().sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> result.add(new Pair<>(entry.getKey(), entry.getValue())));
+        return result;
+    }
+
+    @Override
+    public synchronized Map<UUID, Component> getDisplayNames(@Nonnull Collection<UUID> ids) {
+        Map<UUID, Component> result = new HashMap<>();
+        for (UUID id : ids) {
+            Component name = names.get(id);
+            if (name != null) {
+                result.put(id, name);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void saveGame(GameData gameData) {
+        saveGames(Collections.singletonList(gameData));
+    }
+
+    @Override
+    public synchronized void saveGames(@Nonnull Collection<GameData> games) {
+        try {
+            for (GameData game : games) {
+                append(encodeGame(game));
+            }
+            sync();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not save " + games.size() + " games", ex);
+        }
+    }
+
+    private void append(@Nonnull byte[] payload) throws IOException {
+        long position = logFile.append(payload);
+        index(position, payload.length + 8, payload);
+    }
+
+    private void sync() throws IOException {
+        if (config.persistence.logSync) {
+            logFile.force();
+        }
+    }
+
+    /**
+     * Updates the index for a record, called for every record while the log is opened and for every new record
+     */
+    private void index(long position, int size, @Nonnull byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        UUID id = readUUID(in);
+        switch (type) {
+            case USER:
+                Pointer old = users.put(id, new Pointer(position, size));
+                liveBytes += size - (old == null ? 0 : old.size);
+                // the user record contains all stats, so the stats records before it are outdated
+                Integer outdatedStats = statRecords.remove(id);
+                liveBytes -= outdatedStats == null ? 0 : outdatedStats;
+                // only the name and the stats are needed for the index
+                in.readUTF();
+                in.readUTF();
+                String rawDisplayName = readString(in);
+                Component displayName = readComponent(in);
+                names.put(id, displayName != null ? displayName
+                        : TextComponent.of(rawDisplayName != null ? rawDisplayName : id.toString()));
+                skipUserDetails(in);
+                readStatValues(in, id);
+                break;
+            case STATS:
+                Integer oldStats = statRecords.put(id, size);
+                liveBytes += size - (oldStats == null ? 0 : oldStats);
+                readStatValues(in, id);
+                break;
+            case GAME:
+                Pointer oldGame = games.put(id, new Pointer(position, size));
+                liveBytes += size - (oldGame == null ? 0 : oldGame.size);
+                break;
+            default:
+                throw new IOException("Unknown record type " + type + " at " + position);
+        }
+    }
+
+    private void readStatValues(@Nonnull DataInputStream in, @Nonnull UUID id) throws IOException {
+        // raw keys, the stat types might not be registered yet
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            putStat(in.readUTF(), id, in.readDouble());
+        }
+    }
+
+    private void putStat(@Nonnull String key, @Nonnull UUID id, double val) {
+        statValues.computeIfAbsent(key.toUpperCase(), (k) -> new HashMap<>()).put(id, val);
+    }
+
+    private void compactIfNeeded() {
+        try {
+            synchronized (this) {
+                long size = logFile.size();
+                if (size < config.persistence.compactionMinSize || size < liveBytes * 2) {
+                    return;
+                }
+                compact();
+            }
+        } catch (Exception ex) {
+            log.log(Level.WARNING, "Could not compact " + logFile.getPath(), ex);
+        }
+    }
+
+    /**
+     * Writes the latest record of every user and game into a new log and replaces the old one with it
+     */
+    synchronized void compact() throws IOException {
+        long start = System.currentTimeMillis();
+        long before = logFile.size();
+        Path path = logFile.getPath();
+        Path compactPath = compactPath(path);
+
+        Map<UUID, Map<String, Double>> stats = new HashMap<>();
+        statValues.forEach((key, values) -> values.forEach((id, val) ->
+                stats.computeIfAbsent(id, (k) -> new HashMap<>()).put(key, val)));
+
+        Files.deleteIfExists(compactPath);
+        try (LogFile compacted = new LogFile(compactPath)) {
+            compacted.open((position, size, payload) -> {
+            });
+            for (Pointer pointer : users.values()) {
+                compacted.append(logFile.read(pointer.position));
+            }
+            for (Map.Entry<UUID, Map<String, Double>> entry : stats.entrySet()) {
+                compacted.append(encodeStats(entry.getKey(), entry.getValue()));
+            }
+            for (Pointer pointer : games.values()) {
+                compacted.append(logFile.read(pointer.position));
+            }
+            compacted.force();
+        }
+
+        logFile.close();
+        Files.move(compactPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        users.clear();
+        games.clear();
+        names.clear();
+        statValues.clear();
+        statRecords.clear();
+        liveBytes = 0;
+        logFile = new LogFile(path);
+        logFile.open(this::index);
+
+        log.info("Compacted " + path.getFileName() + " from " + before + " to " + logFile.size() + " bytes in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    @Nonnull
+    private static Path compactPath(@Nonnull Path path) {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    @Nonnull
+    private static String key(@Nonnull Trackable trackable) {
+        return (trackable.getPrefix() + ":" + trackable.name()).toUpperCase();
+    }
+
+    // records
+
+    @Nonnull
+    private static byte[] encodeUser(@Nonnull UserData user) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(USER);
+        writeUUID(out, user.getUuid());
+        out.writeUTF(user.getRole().name());
+        out.writeUTF(user.getLocale().getTag());
+        writeString(out, user.getRawDisplayName());
+        writeComponent(out, user.getDisplayName());
+        writeComponent(out, user.getPrefix());
+        writeComponent(out, user.getSuffix());
+        writeString(out, user.getName());
+        writeString(out, user.getIpAddress());
+        out.writeBoolean(user.isBanned());
+
+        out.writeInt(user.getRatings().size());
+        for (Map.Entry<String, RatingWrapper> entry : user.getRatings().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeDouble(entry.getValue().getConservativeStandardDeviationMultiplier());
+            out.writeDouble(entry.getValue().getMean());
+            out.writeDouble(entry.getValue().getStandardDeviation());
+            out.writeDouble(entry.getValue().getConservativeRating());
+        }
+
+        out.writeInt(user.getStats().size());
+        for (Map.Entry<Trackable, StatInstance> entry : user.getStats().entrySet()) {
+            out.writeUTF(key(entry.getKey()));
+            out.writeDouble(entry.getValue().getVal());
+        }
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    private static UserData decodeUser(@Nonnull DataInputStream in) throws IOException {
+        in.readByte();
+        UserData user = new UserData();
+        UUID id = readUUID(in);
+        user.setUuid(id);
+        String role = in.readUTF();
+        try {
+            user.setRole(Role.valueOf(role));
+        } catch (IllegalArgumentException ex) {
+            user.setRole(Role.DEFAULT);
+        }
+        user.setLocale(Locale.fromTag(in.readUTF()).orElse(Locale.ENGLISH));
+        user.setRawDisplayName(readString(in));
+        user.setDisplayName(readComponent(in));
+        Component prefix = readComponent(in);
+        user.setPrefix(prefix != null ? prefix : TextComponent.of(""));
+        Component suffix = readComponent(in);
+        user.setSuffix(suffix != null ? suffix : TextComponent.of(""));
+        user.setName(readString(in));
+        user.setIpAddress(readString(in));
+        user.setBanned(in.readBoolean());
+
+        int ratings = in.readInt();
+        for (int i = 0; i < ratings; i++) {
+            String mode = in.readUTF();
+            user.getRatings().put(mode, new RatingWrapper(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble()));
+        }
+
+        int stats = in.readInt();
+        for (int i = 0; i < stats; i++) {
+            String key = in.readUTF();
+            double val = in.readDouble();
+            StatsHandler.fromName(key).ifPresent(type -> {
+                StatInstance stat = new StatInstance(id, type, val);
+                stat.markPersisted();
+                user.getStats().put(type, stat);
+            });
+        }
+        return user;
+    }
+
+    /**
+     * Skips everything between the display name and the stats of a user record
+     */
+    private static void skipUserDetails(@Nonnull DataInputStream in) throws IOException {
+        readString(in);
+        readString(in);
+        readString(in);
+        readString(in);
+        in.readBoolean();
+        int ratings = in.readInt();
+        for (int i = 0; i < ratings; i++) {
+            in.readUTF();
+            in.skipBytes(4 * 8);
+        }
+    }
+
+    @Nonnull
+    private static byte[] encodeStats(@Nonnull UUID id, @Nonnull Map<String, Double> values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + values.size() * 24);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(STATS);
+        writeUUID(out, id);
+        out.writeInt(values.size());
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeDouble(entry.getValue());
+        }
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    private static byte[] encodeGame(@Nonnull GameData game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(GAME);
+        writeUUID(out, game.getId());
+        writeUUIDs(out, game.getPlayers());
+        writeUUIDs(out, game.getSpectators());
+        out.writeLong(game.getDuration() != null ? game.getDuration().toMillis() : 0);
+        out.writeBoolean(game.getWinner() != null);
+        if (game.getWinner() != null) {
+            writeUUID(out, game.getWinner());
+        }
+        writeUUIDs(out, game.getWinners());
+        writeString(out, game.getGameMode());
+        out.writeBoolean(game.isAborted());
+        return bytes.toByteArray();
+    }
+
+    private static void writeUUID(@Nonnull DataOutputStream out, @Nonnull UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    @Nonnull
+    private static UUID readUUID(@Nonnull DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeUUIDs(@Nonnull DataOutputStream out, @Nullable List<UUID> ids) throws IOException {
+        if (ids == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(ids.size());
+        for (UUID id : ids) {
+            writeUUID(out, id);
+        }
+    }
+
+    private static void writeString(@Nonnull DataOutputStream out, @Nullable String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) {
+            out.writeUTF(string);
+        }
+    }
+
+    @Nullable
+    private static String readString(@Nonnull DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeComponent(@Nonnull DataOutputStream out, @Nullable Component component) throws IOException {
+        writeString(out, component != null ? ComponentSerializers.JSON.serialize(component) : null);
+    }
+
+    @Nullable
+    private static Component readComponent(@Nonnull DataInputStream in) throws IOException {
+        String json = readString(in);
+        return json != null ? ComponentSerializers.JSON.deserialize(json) : null;
+    }
+
+    /**
+     * Where the latest record of a user or game is
+     */
+    private static final class Pointer {
+
+        private final long position;
+        private final int size;
+
+        private Pointer(long position, int size) {
+            this.position = position;
+            this.size = size;
+        }
+    }
+}
@@ -7,6 +7,10 @@ import com.google.gson.annotations.Expose;
  */
 public class PersistenceConfig {
 
+    // hibernate (needs a database), log (append only file in the data folder, for small servers) or none
+    @Expose
+    public String provider = "hibernate";
+
     @Expose
     public String user = "voxelgameslib";
     @Expose
@@ -20,7 +24,33 @@ public class PersistenceConfig {
     @Expose
     public int pool_size = 10;
     @Expose
+    public int minIdle = 2;
+    @Expose
+    public long connectionTimeout = 5000;
+    @Expose
+    public long validationTimeout = 3000;
+    @Expose
+    public long maxLifetime = 1800000;
+    @Expose
+    public long leakDetectionThreshold = 10000;
+    @Expose
     public boolean showSQL = true;
     @Expose
     public boolean initialTableCreation = true;
+    @Expose
+    public boolean writeBehind = true;
+    @Expose
+    public int batchSize = 50;
+    @Expose
+    public long flushInterval = 5000;
+    @Expose
+    public int ioThreads = 4;
+    @Expose
+    public int statFlushLimit = 500;
+    @Expose
+    public boolean logSync = true;
+    @Expose
+    public long compactionInterval = 300;
+    @Expose
+    public long compactionMinSize = 1024 * 1024;
 }
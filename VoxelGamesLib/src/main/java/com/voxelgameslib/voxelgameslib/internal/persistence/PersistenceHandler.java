@@ -2,12 +2,27 @@ package com.voxelgameslib.voxelgameslib.internal.persistence;
 
 import com.google.inject.Injector;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
 
 /**
  * Handles saving and loading of data into numerous formats
@@ -18,27 +33,159 @@ public class PersistenceHandler implements Handler {
     private static final Logger log = Logger.getLogger(PersistenceHandler.class.getName());
     @Inject
     private Injector injector;
+    @Inject
+    private GlobalConfig config;
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
 
     private PersistenceProvider activeProvider;
+    private AsyncPersistenceProvider asyncProvider;
+    private ExecutorService ioExecutor;
 
     @Override
     public void enable() {
-        // todo: dynamically choose persistence provider, named injection perhaps
-
-        activeProvider = injector.getInstance(HibernatePersistenceProvider.class);
-        //activeProvider = injector.getInstance(FlatFileJsonPersistenceProvider.class);
+        switch (config.persistence.provider.toLowerCase()) {
+            case "log":
+                activeProvider = injector.getInstance(LogPersistenceProvider.class);
+                break;
+            case "none":
+                activeProvider = injector.getInstance(EmptyPersistenceProvider.class);
+                break;
+            case "hibernate":
+                activeProvider = injector.getInstance(HibernatePersistenceProvider.class);
+                break;
+            default:
+                log.warning("Unknown persistence provider " + config.persistence.provider + ", using hibernate");
+                activeProvider = injector.getInstance(HibernatePersistenceProvider.class);
+        }
         activeProvider.enable();
 
+        AtomicInteger threads = new AtomicInteger();
+        ioExecutor = Executors.newFixedThreadPool(Math.max(1, config.persistence.ioThreads), (runnable) -> {
+            Thread thread = new Thread(runnable, "VGL-PersistenceIO-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        asyncProvider = new AsyncPersistenceAdapter(activeProvider, ioExecutor);
+
+        if (config.persistence.writeBehind) {
+            writeBehindQueue.start(activeProvider);
+        }
+
         log.info("Loaded persistence provider: " + activeProvider.getClass().getSimpleName());
     }
 
     @Override
     public void disable() {
+        writeBehindQueue.stop();
+
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warning("Persistence I/O did not finish in time");
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
         activeProvider.disable();
     }
 
     /**
-     * @return the currently active persistence provider
+     * Saves the user data. If write behind is enabled the write is queued and batched with others, else the data is
+     * written on the I/O executor right away. If that write fails the stats of the user are marked dirty again, so that
+     * the next stats flush saves the user again. Never blocks.
+     *
+     * @param user the user data to persist
+     */
+    public void saveUser(@Nonnull UserData user) {
+        if (config.persistence.writeBehind) {
+            // the queue tries again until the write succeeded
+            writeBehindQueue.queue(user);
+        } else {
+            // the main thread keeps changing the user while it is written
+            UserData snapshot = user.snapshot();
+            asyncProvider.saveUser(snapshot).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    log.log(Level.WARNING, "Could not persist user " + user.getUuid(), ex);
+                    snapshot.onFailed();
+                } else {
+                    snapshot.onPersisted();
+                }
+            });
+        }
+    }
+
+    /**
+     * Updates only the values of the given stats, on the I/O executor. The values are copied first, stats that could
+     * not be written are marked dirty again. Never blocks.
+     *
+     * @param stats the stats to update, need to be persisted already
+     */
+    public void saveStats(@Nonnull Collection<StatInstance> stats) {
+        // the main thread keeps changing the stats while they are written
+        List<StatInstance> snapshots = stats.stream().map(StatInstance::snapshot).collect(Collectors.toList());
+        asyncProvider.saveStats(snapshots).whenComplete((v, ex) -> {
+            if (ex != null) {
+                log.log(Level.WARNING, "Could not persist " + snapshots.size() + " stats", ex);
+                snapshots.forEach(StatInstance::onFailed);
+            }
+        });
+    }
+
+    /**
+     * Saves the game data. If write behind is enabled the write is queued and batched with others, else the data is
+     * written on the I/O executor right away. Never blocks.
+     *
+     * @param game the game data to persist
+     */
+    public void saveGame(@Nonnull GameData game) {
+        if (config.persistence.writeBehind) {
+            writeBehindQueue.queue(game);
+        } else {
+            asyncProvider.saveGame(game).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    log.log(Level.WARNING, "Could not persist game " + game.getId(), ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the data for a user. Data that is still waiting to be written is preferred over the data in the provider.
+     *
+     * @param id the uuid of the user
+     * @return a future with the UserData, if present
+     */
+    @Nonnull
+    public CompletableFuture<Optional<UserData>> loadUser(@Nonnull UUID id) {
+        Optional<UserData> pending = writeBehindQueue.getPendingUser(id);
+        if (pending.isPresent()) {
+            return CompletableFuture.completedFuture(pending);
+        }
+        return asyncProvider.loadUser(id);
+    }
+
+    /**
+     * @return the queue that writes data in the background
+     */
+    @Nonnull
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
+    /**
+     * @return the non blocking view of the active persistence provider, use this from the main thread
+     */
+    @Nonnull
+    public AsyncPersistenceProvider getAsyncProvider() {
+        return asyncProvider;
+    }
+
+    /**
+     * @return the currently active persistence provider. Its methods block, never call them from the main thread!
      */
     @Nonnull
     public PersistenceProvider getProvider() {
@@ -2,11 +2,14 @@ package com.voxelgameslib.voxelgameslib.internal.persistence;
 
 import net.kyori.text.Component;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import javax.annotation.Nonnull;
 
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
 import com.voxelgameslib.voxelgameslib.api.stats.Trackable;
 import com.voxelgameslib.voxelgameslib.internal.handler.Handler;
 import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
@@ -14,7 +17,8 @@ import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
 import com.voxelgameslib.voxelgameslib.util.Pair;
 
 /**
- * A persistence provider handles loading and saving of all kinds of data
+ * A persistence provider handles loading and saving of all kinds of data.<br> The save methods throw if the data could
+ * not be written, callers rely on that to keep the data around and try again.
  */
 public interface PersistenceProvider extends Handler {
 
@@ -37,6 +41,24 @@ public interface PersistenceProvider extends Handler {
      */
     void saveUser(@Nonnull UserData user);
 
+    /**
+     * Persists the data of multiple users at once. Providers should override this if they can write batches more
+     * efficiently than one by one.
+     *
+     * @param users the user data to persist
+     */
+    default void saveUsers(@Nonnull Collection<UserData> users) {
+        users.forEach(this::saveUser);
+    }
+
+    /**
+     * Persists only the given stats. The stats need to be persisted already (see {@link StatInstance#isNew()}), this
+     * only updates their values.
+     *
+     * @param stats the stats to update
+     */
+    void saveStats(@Nonnull Collection<StatInstance> stats);
+
     /**
      * Tries to load the data for a user based on a uuid
      *
@@ -64,10 +86,28 @@ public interface PersistenceProvider extends Handler {
      */
     List<Pair<UUID, Double>> getTopWithUUID(Trackable type, int amount);
 
+    /**
+     * Gets the display names of the users
+     *
+     * @param ids the uuids of the users
+     * @return the display names of the users that are known, by uuid
+     */
+    Map<UUID, Component> getDisplayNames(@Nonnull Collection<UUID> ids);
+
     /**
      * Saves the state of a game
      *
      * @param gameData the game data to save
      */
     void saveGame(GameData gameData);
+
+    /**
+     * Saves the state of multiple games at once. Providers should override this if they can write batches more
+     * efficiently than one by one.
+     *
+     * @param games the game data to save
+     */
+    default void saveGames(@Nonnull Collection<GameData> games) {
+        games.forEach(this::saveGame);
+    }
 }
@@ -0,0 +1,122 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * Collects the metrics of the connection pool: how long threads had to wait for a connection, how long connections
+ * were used and how many are in use right now.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong acquireNanos = new AtomicLong();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final AtomicLong usageMillis = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+
+    @Nullable
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                created.incrementAndGet();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquired.incrementAndGet();
+                acquireNanos.addAndGet(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageMillis.addAndGet(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * @return the average time a thread had to wait for a connection, in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long count = acquired.get();
+        return count == 0 ? 0 : acquireNanos.get() / count;
+    }
+
+    /**
+     * @return the longest time a thread had to wait for a connection, in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxAcquireNanos.get();
+    }
+
+    /**
+     * @return the average time a connection was borrowed, in milliseconds
+     */
+    public long getAverageUsageMillis() {
+        long count = acquired.get();
+        return count == 0 ? 0 : usageMillis.get() / count;
+    }
+
+    /**
+     * @return how many connections were handed out
+     */
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    /**
+     * @return how many times a thread gave up waiting for a connection
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return how many physical connections were opened
+     */
+    public long getCreated() {
+        return created.get();
+    }
+
+    /**
+     * @return the number of connections that are in use right now
+     */
+    public int getActiveConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getActiveConnections();
+    }
+
+    /**
+     * @return the number of connections that are open but not in use
+     */
+    public int getIdleConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getIdleConnections();
+    }
+
+    /**
+     * @return the number of threads waiting for a connection right now
+     */
+    public int getPendingThreads() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+
+}
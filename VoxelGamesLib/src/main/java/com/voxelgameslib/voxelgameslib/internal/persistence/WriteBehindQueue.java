@@ -0,0 +1,392 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.GameData;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+
+/**
+ * Queues writes to the persistence provider and flushes them in batches on a dedicated thread. Multiple writes for the
+ * same uuid are collapsed into one, only the latest data is written. A batch that fails is written again one entity at
+ * a time, entities that still fail stay queued for the next flush and are parked after a few attempts, so that a
+ * single bad record can't block the others. Everything that is still pending or parked is flushed when the queue is
+ * stopped.
+ */
+@Singleton
+public class WriteBehindQueue {
+
+    private static final Logger log = Logger.getLogger(WriteBehindQueue.class.getName());
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Inject
+    private GlobalConfig config;
+
+    private final Object lock = new Object();
+    private final Map<UUID, UserData> pendingUsers = new LinkedHashMap<>();
+    private final Map<UUID, GameData> pendingGames = new LinkedHashMap<>();
+    // drained, but not committed yet. still visible to loads, so a relog can't miss them
+    private final Map<UUID, UserData> inFlightUsers = new HashMap<>();
+    // failed too often, only tried again when the server stops. still visible to loads
+    private final Map<UUID, UserData> parkedUsers = new HashMap<>();
+    private final Map<UUID, GameData> parkedGames = new HashMap<>();
+    // failed writes of single entities in a row, only used by the flush thread
+    private final Map<UUID, Integer> failures = new HashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private PersistenceProvider provider;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Starts the flush thread
+     *
+     * @param provider the provider the writes should be flushed to
+     */
+    public void start(@Nonnull PersistenceProvider provider) {
+        this.provider = provider;
+        executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "VGL-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100, config.persistence.flushInterval);
+        executor.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flush thread and writes everything that is still pending
+     */
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warning("Flush thread did not stop in time, flushing on the current thread");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+
+        synchronized (lock) {
+            // last chance for the parked ones
+            parkedUsers.forEach(pendingUsers::putIfAbsent);
+            parkedGames.forEach(pendingGames::putIfAbsent);
+            parkedUsers.clear();
+            parkedGames.clear();
+        }
+        flushSafely();
+        synchronized (lock) {
+            int users = pendingUsers.size() + parkedUsers.size();
+            int games = pendingGames.size() + parkedGames.size();
+            if (users + games > 0) {
+                log.severe("Could not persist " + users + " users and " + games + " games!");
+                pendingUsers.clear();
+                pendingGames.clear();
+                parkedUsers.clear();
+                parkedGames.clear();
+            }
+        }
+    }
+
+    /**
+     * Queues the user data to be written. Replaces an older write for the same user that is still pending. The data is
+     * copied, so it may keep changing on the main thread while the copy is written.
+     *
+     * @param user the user data to persist
+     */
+    public void queue(@Nonnull UserData user) {
+        UserData snapshot = user.snapshot();
+        int size;
+        synchronized (lock) {
+            pendingUsers.put(snapshot.getUuid(), snapshot);
+            parkedUsers.remove(snapshot.getUuid());
+            size = pendingUsers.size() + pendingGames.size();
+        }
+        onQueued(size);
+    }
+
+    /**
+     * Queues the game data to be written. Replaces an older write for the same game that is still pending.
+     *
+     * @param game the game data to persist
+     */
+    public void queue(@Nonnull GameData game) {
+        int size;
+        synchronized (lock) {
+            pendingGames.put(game.getId(), game);
+            parkedGames.remove(game.getId());
+            size = pendingUsers.size() + pendingGames.size();
+        }
+        onQueued(size);
+    }
+
+    /**
+     * Returns the user data that is waiting to be written or is being written right now, so that a load doesn't return
+     * outdated data
+     *
+     * @param id the uuid of the user
+     * @return a copy of the pending user data, if present
+     */
+    @Nonnull
+    public Optional<UserData> getPendingUser(@Nonnull UUID id) {
+        synchronized (lock) {
+            UserData pending = pendingUsers.get(id);
+            if (pending == null) {
+                pending = inFlightUsers.get(id);
+            }
+            if (pending == null) {
+                pending = parkedUsers.get(id);
+            }
+            // the queued copy may be written at any time, never hand it out
+            return Optional.ofNullable(pending).map(UserData::snapshot);
+        }
+    }
+
+    /**
+     * @return the number of entities waiting to be written, including the ones that are written right now
+     */
+    public int getPending() {
+        synchronized (lock) {
+            return pendingUsers.size() + inFlightUsers.size() + parkedUsers.size() + pendingGames.size()
+                    + parkedGames.size();
+        }
+    }
+
+    /**
+     * @return how many writes were queued since the start, including the ones that were collapsed
+     */
+    public long getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return how many entities were actually written since the start
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    private void onQueued(int size) {
+        queued.incrementAndGet();
+        if (size >= config.persistence.batchSize && executor != null && flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flushSafely);
+            } catch (RejectedExecutionException ex) {
+                // we are shutting down, stop() will flush
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushSafely() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (Exception ex) {
+            log.log(Level.WARNING, "Error while flushing pending writes", ex);
+        }
+    }
+
+    private void flush() {
+        int batchSize = Math.max(1, config.persistence.batchSize);
+        List<UserData> retryUsers = new ArrayList<>();
+        List<GameData> retryGames = new ArrayList<>();
+        try {
+            while (true) {
+                List<UserData> users;
+                List<GameData> games;
+                synchronized (lock) {
+                    users = drain(pendingUsers, batchSize);
+                    users.forEach(user -> inFlightUsers.put(user.getUuid(), user));
+                    games = drain(pendingGames, batchSize - users.size());
+                }
+
+                if (users.isEmpty() && games.isEmpty()) {
+                    return;
+                }
+
+                if (!users.isEmpty()) {
+                    users.forEach(UserData::refreshIds);
+                    try {
+                        provider.saveUsers(users);
+                        users.forEach(this::onWritten);
+                    } catch (Exception ex) {
+                        users.forEach(UserData::resetIds);
+                        log.log(Level.WARNING, "Could not write " + users.size() + " users, writing them one by one", ex);
+                        if (!saveUsersOneByOne(users, retryUsers)) {
+                            retryGames.addAll(games);
+                            return;
+                        }
+                    }
+                }
+
+                if (!games.isEmpty()) {
+                    try {
+                        provider.saveGames(games);
+                        games.forEach(this::onWritten);
+                    } catch (Exception ex) {
+                        log.log(Level.WARNING, "Could not write " + games.size() + " games, writing them one by one", ex);
+                        if (!saveGamesOneByOne(games, retryGames)) {
+                            return;
+                        }
+                    }
+                }
+            }
+        } finally {
+            // not in the loop above, the next flush tries them again
+            requeue(retryUsers, retryGames);
+        }
+    }
+
+    /**
+     * Writes the users of a batch that failed one at a time, so that a single bad record doesn't keep the others from
+     * being written. Users that fail are tried again by the next flush and parked after {@link #MAX_ATTEMPTS}. If none
+     * of them could be written the provider is most likely down, then they are all tried again and nothing is counted.
+     *
+     * @return false if none of the users could be written, the flush should be stopped then
+     */
+    private boolean saveUsersOneByOne(@Nonnull List<UserData> users, @Nonnull List<UserData> retry) {
+        List<UserData> failed = new ArrayList<>();
+        for (UserData user : users) {
+            try {
+                provider.saveUser(user);
+                onWritten(user);
+            } catch (Exception ex) {
+                log.log(Level.FINE, "Could not write user " + user.getUuid(), ex);
+                user.resetIds();
+                failed.add(user);
+            }
+        }
+
+        if (failed.size() > 1 && failed.size() == users.size()) {
+            retry.addAll(failed);
+            return false;
+        }
+        for (UserData user : failed) {
+            if (onFailed(user.getUuid(), "user")) {
+                synchronized (lock) {
+                    inFlightUsers.remove(user.getUuid(), user);
+                    if (!pendingUsers.containsKey(user.getUuid())) {
+                        parkedUsers.put(user.getUuid(), user);
+                    }
+                }
+            } else {
+                retry.add(user);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #saveUsersOneByOne(List, List)}, for games
+     */
+    private boolean saveGamesOneByOne(@Nonnull List<GameData> games, @Nonnull List<GameData> retry) {
+        List<GameData> failed = new ArrayList<>();
+        for (GameData game : games) {
+            try {
+                provider.saveGame(game);
+                onWritten(game);
+            } catch (Exception ex) {
+                log.log(Level.FINE, "Could not write game " + game.getId(), ex);
+                failed.add(game);
+            }
+        }
+
+        if (failed.size() > 1 && failed.size() == games.size()) {
+            retry.addAll(failed);
+            return false;
+        }
+        for (GameData game : failed) {
+            if (onFailed(game.getId(), "game")) {
+                synchronized (lock) {
+                    if (!pendingGames.containsKey(game.getId())) {
+                        parkedGames.put(game.getId(), game);
+                    }
+                }
+            } else {
+                retry.add(game);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts a failed write of a single entity
+     *
+     * @return true if the entity failed too often and should be parked
+     */
+    private boolean onFailed(@Nonnull UUID id, @Nonnull String type) {
+        int attempts = failures.merge(id, 1, Integer::sum);
+        if (attempts < MAX_ATTEMPTS) {
+            return false;
+        }
+        failures.remove(id);
+        log.severe("Could not write " + type + " " + id + " " + attempts + " times in a row, parking it until the "
+                + "server stops or it is queued again");
+        return true;
+    }
+
+    private void onWritten(@Nonnull UserData user) {
+        user.onPersisted();
+        synchronized (lock) {
+            inFlightUsers.remove(user.getUuid(), user);
+        }
+        failures.remove(user.getUuid());
+        written.incrementAndGet();
+    }
+
+    private void onWritten(@Nonnull GameData game) {
+        failures.remove(game.getId());
+        written.incrementAndGet();
+    }
+
+    /**
+     * Puts entities that could not be written back, unless there is newer data already. The next flush tries again.
+     */
+    private void requeue(@Nonnull List<UserData> users, @Nonnull List<GameData> games) {
+        synchronized (lock) {
+            users.forEach(user -> {
+                inFlightUsers.remove(user.getUuid(), user);
+                pendingUsers.putIfAbsent(user.getUuid(), user);
+            });
+            games.forEach(game -> pendingGames.putIfAbsent(game.getId(), game));
+        }
+    }
+
+    @Nonnull
+    private static <T> List<T> drain(@Nonnull Map<UUID, T> pending, int max) {
+        List<T> batch = new ArrayList<>(Math.min(Math.max(max, 0), pending.size()));
+        Iterator<T> it = pending.values().iterator();
+        while (it.hasNext() && batch.size() < max) {
+            batch.add(it.next());
+            it.remove();
+        }
+        return batch;
+    }
+}
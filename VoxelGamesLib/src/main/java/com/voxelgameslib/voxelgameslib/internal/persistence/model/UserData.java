@@ -185,6 +185,62 @@ public class UserData {
         return stats.computeIfAbsent(type, t -> t.getNewInstance(uuid));
     }
 
+    /**
+     * Creates a copy of the data that can be written on another thread while this one keeps changing. Ratings and stats
+     * are copied as well.
+     *
+     * @return the copy
+     */
+    public UserData snapshot() {
+        UserData copy = new UserData();
+        copy.uuid = uuid;
+        copy.role = role;
+        copy.locale = locale;
+        ratings.forEach((mode, rating) -> copy.ratings.put(mode, rating.snapshot()));
+        copy.rawDisplayName = rawDisplayName;
+        copy.displayName = displayName;
+        copy.prefix = prefix;
+        copy.suffix = suffix;
+        copy.name = name;
+        copy.ipAddress = ipAddress;
+        copy.banned = banned;
+        stats.forEach((type, stat) -> copy.stats.put(type, stat.snapshot()));
+        return copy;
+    }
+
+    /**
+     * Takes over the ids that were generated for the originals of the ratings and stats of this copy by an earlier
+     * write. Call this before writing a snapshot, on the thread that writes it.
+     */
+    public void refreshIds() {
+        ratings.values().forEach(RatingWrapper::refreshId);
+        stats.values().forEach(StatInstance::refreshId);
+    }
+
+    /**
+     * Called when writing this snapshot failed, drops the ids that were generated for the ratings and stats while it
+     * was written, so that it can be written again
+     */
+    public void resetIds() {
+        ratings.values().forEach(RatingWrapper::resetId);
+        stats.values().forEach(StatInstance::resetId);
+    }
+
+    /**
+     * Called after this snapshot was written, hands the generated ids back to the originals
+     */
+    public void onPersisted() {
+        ratings.values().forEach(RatingWrapper::onPersisted);
+        stats.values().forEach(StatInstance::onPersisted);
+    }
+
+    /**
+     * Called when writing this snapshot failed, marks the stats of the original dirty again
+     */
+    public void onFailed() {
+        stats.values().forEach(StatInstance::onFailed);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,42 +4,21 @@ import net.kyori.text.Component;
 import net.kyori.text.TextComponent;
 import net.kyori.text.format.TextColor;
 import net.kyori.text.serializer.ComponentSerializers;
+import net.md_5.bungee.chat.ComponentSerializer;
 
-import java.lang.reflect.Method;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.voxelgameslib.voxelgameslib.components.chat.ChatChannel;
 import com.voxelgameslib.voxelgameslib.components.user.GamePlayer;
 
-import org.bukkit.Bukkit;
-
 /**
  * Small util for chat related stuff
  */
 public class ChatUtil {
 
     private static final Logger log = Logger.getLogger(ChatUtil.class.getName());
-    private static String NMS_PREFIX = Bukkit.getServer().getClass().getPackage().getName()
-            .replace("org.bukkit.craftbukkit", "net.minecraft.server").concat(".");
-    private static final Method CRAFTPLAYER_GETHANDLE_METHOD;
-    private static final Method CHATSERIALIZER_A_METHOD;
-    private static final Method ENTITYPLAYER_SENDMESSAGE_METHOD;
-
-    static {
-        try {
-            CRAFTPLAYER_GETHANDLE_METHOD = Class.forName(
-                    Bukkit.getServer().getClass().getPackage().getName().concat(".entity.CraftPlayer"))
-                    .getDeclaredMethod("getHandle");
-            CHATSERIALIZER_A_METHOD = Class
-                    .forName(NMS_PREFIX.concat("IChatBaseComponent$ChatSerializer"))
-                    .getDeclaredMethod("a", String.class);
-            ENTITYPLAYER_SENDMESSAGE_METHOD = Class.forName(NMS_PREFIX.concat("EntityPlayer"))
-                    .getDeclaredMethod("sendMessage", Class.forName(NMS_PREFIX.concat("IChatBaseComponent")));
-        } catch (final Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
 
     /**
      * Serialises a array of base components into a single string (by calling #toPlainText on them)
@@ -72,14 +51,75 @@ public class ChatUtil {
      * @param message  the message to send to the user
      */
     public static void sendMessage(@Nonnull GamePlayer gameUser, @Nonnull Component message) {
+        sendJson(gameUser, ComponentSerializers.JSON.serialize(message));
+    }
+
+    /**
+     * Sends an already serialized message to the user
+     *
+     * @param gameUser the user that should get the message
+     * @param json     the message to send, as json
+     */
+    public static void sendJson(@Nonnull GamePlayer gameUser, @Nonnull String json) {
+        if (!NMSBridge.hasChatMessages()) {
+            gameUser.getPlayer().spigot().sendMessage(ComponentSerializer.parse(json));
+            return;
+        }
+
         try {
-            ENTITYPLAYER_SENDMESSAGE_METHOD.invoke(CRAFTPLAYER_GETHANDLE_METHOD.invoke(gameUser.getPlayer()),
-                    CHATSERIALIZER_A_METHOD.invoke(null, ComponentSerializers.JSON.serialize(message)));
-        } catch (Exception e) {
+            Object handle = (Object) NMSBridge.CRAFTPLAYER_GETHANDLE.invokeExact((Object) gameUser.getPlayer());
+            Object component = (Object) NMSBridge.CHATSERIALIZER_FROMJSON.invokeExact((Object) json);
+            NMSBridge.ENTITYPLAYER_SENDMESSAGE.invokeExact(handle, component);
+        } catch (Throwable e) {
             throw new RuntimeException("wut", e);
         }
     }
 
+    /**
+     * Creates a chat packet that can be send to many users. Serializing and creating the packet only happens once, the
+     * server shares packets between players the same way when it sends something to everyone.
+     *
+     * @param json the message, as json
+     * @return the packet, to be passed to {@link #sendPacket(GamePlayer, Object)}, or null if this server version
+     * doesn't support sending packets directly
+     */
+    @Nullable
+    public static Object createChatPacket(@Nonnull String json) {
+        if (!NMSBridge.hasChatPackets()) {
+            return null;
+        }
+
+        try {
+            Object component = (Object) NMSBridge.CHATSERIALIZER_FROMJSON.invokeExact((Object) json);
+            return (Object) NMSBridge.PACKETPLAYOUTCHAT_NEW.invokeExact(component);
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not create chat packet", e);
+        }
+    }
+
+    /**
+     * Sends a packet that was created by {@link #createChatPacket(String)} to the user. Users that turned their chat off
+     * don't get it, like with every other system message. Can be called from any thread.
+     *
+     * @param gameUser the user that should get the packet
+     * @param packet   the packet to send
+     */
+    public static void sendPacket(@Nonnull GamePlayer gameUser, @Nonnull Object packet) {
+        try {
+            Object handle = (Object) NMSBridge.CRAFTPLAYER_GETHANDLE.invokeExact((Object) gameUser.getPlayer());
+            // system messages are shown for "commands only" too
+            if ((Object) NMSBridge.ENTITYPLAYER_GETCHATFLAGS.invokeExact(handle) == NMSBridge.CHATVISIBILITY_HIDDEN) {
+                return;
+            }
+            Object connection = (Object) NMSBridge.ENTITYPLAYER_PLAYERCONNECTION.invokeExact(handle);
+            if (connection != null) {
+                NMSBridge.PLAYERCONNECTION_SENDPACKET.invokeExact(connection, packet);
+            }
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not send packet", e);
+        }
+    }
+
     @Nonnull
     public static Component formatChannelMessage(@Nonnull ChatChannel channel, @Nonnull Component displayName, @Nonnull Component message) {
         Component prefix = TextComponent.of("");
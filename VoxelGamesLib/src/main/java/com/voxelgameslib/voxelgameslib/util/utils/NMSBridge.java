@@ -0,0 +1,248 @@
+package com.voxelgameslib.voxelgameslib.util.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+/**
+ * Gives access to the parts of NMS and CraftBukkit that aren't exposed by the API. Everything is resolved once, when
+ * this class is loaded, into method handles that are stored in static final fields, so the JIT can treat them as
+ * constants and inline the calls like normal method calls.<br> All handles are adapted to only use Object, so they can
+ * be called with {@link MethodHandle#invokeExact(Object...)} without knowing the NMS classes:
+ * <pre>Object handle = (Object) NMSBridge.CRAFTPLAYER_GETHANDLE.invokeExact((Object) player);</pre>
+ * A handle is null if it doesn't exist in the running server version, callers need to fall back to the API then.
+ */
+public class NMSBridge {
+
+    private static final Logger log = Logger.getLogger(NMSBridge.class.getName());
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    /**
+     * the version of the nms package, like v1_13_R2, or null if the server doesn't use versioned packages
+     */
+    @Nullable
+    public static final String VERSION;
+
+    /**
+     * (CraftPlayer) -&gt; EntityPlayer
+     */
+    @Nullable
+    public static final MethodHandle CRAFTPLAYER_GETHANDLE;
+    /**
+     * (String json) -&gt; IChatBaseComponent
+     */
+    @Nullable
+    public static final MethodHandle CHATSERIALIZER_FROMJSON;
+    /**
+     * (EntityPlayer, IChatBaseComponent) -&gt; void
+     */
+    @Nullable
+    public static final MethodHandle ENTITYPLAYER_SENDMESSAGE;
+    /**
+     * (EntityPlayer) -&gt; PlayerConnection
+     */
+    @Nullable
+    public static final MethodHandle ENTITYPLAYER_PLAYERCONNECTION;
+    /**
+     * (PlayerConnection, Packet) -&gt; void
+     */
+    @Nullable
+    public static final MethodHandle PLAYERCONNECTION_SENDPACKET;
+    /**
+     * (EntityPlayer) -&gt; EnumChatVisibility
+     */
+    @Nullable
+    public static final MethodHandle ENTITYPLAYER_GETCHATFLAGS;
+    /**
+     * the chat visibility of players that turned their chat off, compare with the result of
+     * {@link #ENTITYPLAYER_GETCHATFLAGS}
+     */
+    @Nullable
+    public static final Object CHATVISIBILITY_HIDDEN;
+    /**
+     * (IChatBaseComponent) -&gt; PacketPlayOutChat, as a system message
+     */
+    @Nullable
+    public static final MethodHandle PACKETPLAYOUTCHAT_NEW;
+    /**
+     * (CraftWorld) -&gt; WorldServer
+     */
+    @Nullable
+    public static final MethodHandle CRAFTWORLD_GETHANDLE;
+    /**
+     * (WorldServer) -&gt; void, only exists on paper
+     */
+    @Nullable
+    public static final MethodHandle WORLDSERVER_FLUSHSAVE;
+
+    static {
+        Server server = Bukkit.getServer();
+        String[] pkg = server == null ? new String[0] : server.getClass().getPackage().getName().split("\\.");
+        VERSION = pkg.length > 3 && pkg[3].startsWith("v") ? pkg[3] : null;
+
+        Class<?> craftPlayer = obcClass("entity.CraftPlayer");
+        Class<?> craftWorld = obcClass("CraftWorld");
+        Class<?> entityPlayer = nmsClass("EntityPlayer");
+        Class<?> chatBaseComponent = nmsClass("IChatBaseComponent");
+        Class<?> chatSerializer = nmsClass("IChatBaseComponent$ChatSerializer");
+        Class<?> playerConnection = nmsClass("PlayerConnection");
+        Class<?> packet = nmsClass("Packet");
+        Class<?> packetPlayOutChat = nmsClass("PacketPlayOutChat");
+        Class<?> chatMessageType = nmsClass("ChatMessageType");
+        Class<?> chatVisibility = nmsClass("EntityHuman$EnumChatVisibility");
+        Class<?> worldServer = nmsClass("WorldServer");
+
+        CRAFTPLAYER_GETHANDLE = virtual(craftPlayer, "getHandle", entityPlayer);
+        CRAFTWORLD_GETHANDLE = virtual(craftWorld, "getHandle", worldServer);
+        CHATSERIALIZER_FROMJSON = find(() -> LOOKUP.findStatic(chatSerializer, "a",
+                MethodType.methodType(chatBaseComponent, String.class)));
+        ENTITYPLAYER_PLAYERCONNECTION = find(() -> LOOKUP.findGetter(entityPlayer, "playerConnection",
+                playerConnection));
+        PLAYERCONNECTION_SENDPACKET = virtual(playerConnection, "sendPacket", void.class, packet);
+        WORLDSERVER_FLUSHSAVE = virtual(worldServer, "flushSave", void.class);
+        ENTITYPLAYER_GETCHATFLAGS = virtual(entityPlayer, "getChatFlags", chatVisibility);
+        CHATVISIBILITY_HIDDEN = chatVisibility == null ? null : find(() -> chatVisibility.getField("HIDDEN").get(null));
+
+        // 1.16 added the sender uuid, the nil uuid is what the server uses for system messages
+        MethodHandle sendMessage = virtual(entityPlayer, "sendMessage", void.class, chatBaseComponent);
+        if (sendMessage == null) {
+            sendMessage = bind(virtual(entityPlayer, "sendMessage", void.class, chatBaseComponent, UUID.class),
+                    new UUID(0, 0));
+        }
+        ENTITYPLAYER_SENDMESSAGE = sendMessage;
+
+        // the chat type moved from a byte to an enum in 1.12 and got the sender uuid in 1.16
+        Object system = chatMessageType == null ? null : find(() -> chatMessageType.getField("SYSTEM").get(null));
+        MethodHandle newChat = bind(constructor(packetPlayOutChat, chatBaseComponent, chatMessageType, UUID.class),
+                system, new UUID(0, 0));
+        if (newChat == null) {
+            newChat = bind(constructor(packetPlayOutChat, chatBaseComponent, chatMessageType), system);
+        }
+        if (newChat == null) {
+            newChat = bind(constructor(packetPlayOutChat, chatBaseComponent, byte.class), (byte) 1);
+        }
+        PACKETPLAYOUTCHAT_NEW = newChat;
+
+        if (VERSION != null && (CRAFTPLAYER_GETHANDLE == null || CHATSERIALIZER_FROMJSON == null
+                || ENTITYPLAYER_SENDMESSAGE == null || PACKETPLAYOUTCHAT_NEW == null)) {
+            log.warning("Could not find all nms methods for " + VERSION + ", falling back to the api where needed");
+        }
+    }
+
+    /**
+     * @return true if chat packets can be created and send directly (without skipping the chat settings of the player)
+     */
+    public static boolean hasChatPackets() {
+        return CRAFTPLAYER_GETHANDLE != null && CHATSERIALIZER_FROMJSON != null && PACKETPLAYOUTCHAT_NEW != null
+                && ENTITYPLAYER_PLAYERCONNECTION != null && PLAYERCONNECTION_SENDPACKET != null
+                && ENTITYPLAYER_GETCHATFLAGS != null && CHATVISIBILITY_HIDDEN != null;
+    }
+
+    /**
+     * @return true if chat messages can be send from json directly
+     */
+    public static boolean hasChatMessages() {
+        return CRAFTPLAYER_GETHANDLE != null && CHATSERIALIZER_FROMJSON != null && ENTITYPLAYER_SENDMESSAGE != null;
+    }
+
+    /**
+     * Resolves a public, non static method as handle that only uses Object
+     *
+     * @param owner  the class that declares the method, may be null if it doesn't exist
+     * @param name   the name of the method
+     * @param ret    the return type of the method
+     * @param params the parameter types of the method
+     * @return the handle, or null if the method doesn't exist
+     */
+    @Nullable
+    public static MethodHandle virtual(@Nullable Class<?> owner, @Nonnull String name, @Nullable Class<?> ret,
+                                       @Nonnull Class<?>... params) {
+        if (owner == null || ret == null || anyNull(params)) {
+            return null;
+        }
+        return find(() -> LOOKUP.findVirtual(owner, name, MethodType.methodType(ret, params)));
+    }
+
+    @Nullable
+    private static MethodHandle constructor(@Nullable Class<?> owner, @Nonnull Class<?>... params) {
+        if (owner == null || anyNull(params)) {
+            return null;
+        }
+        return find(() -> LOOKUP.findConstructor(owner, MethodType.methodType(void.class, params)));
+    }
+
+    /**
+     * Binds the trailing arguments of the handle
+     */
+    @Nullable
+    private static MethodHandle bind(@Nullable MethodHandle handle, @Nonnull Object... values) {
+        if (handle == null || anyNull(values)) {
+            return null;
+        }
+        return generic(MethodHandles.insertArguments(handle, handle.type().parameterCount() - values.length,
+                values));
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> T find(@Nonnull Resolver<T> resolver) {
+        try {
+            T result = resolver.resolve();
+            return result instanceof MethodHandle ? (T) generic((MethodHandle) result) : result;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.log(Level.FINE, "Could not resolve nms member", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Changes all types of the handle to Object (and keeps void), so that callers don't need the nms classes
+     */
+    @Nonnull
+    private static MethodHandle generic(@Nonnull MethodHandle handle) {
+        MethodType type = handle.type().generic();
+        if (handle.type().returnType() == void.class) {
+            type = type.changeReturnType(void.class);
+        }
+        return handle.asType(type);
+    }
+
+    @Nullable
+    private static Class<?> nmsClass(@Nonnull String name) {
+        if (VERSION == null) {
+            return null;
+        }
+        return find(() -> Class.forName("net.minecraft.server." + VERSION + "." + name));
+    }
+
+    @Nullable
+    private static Class<?> obcClass(@Nonnull String name) {
+        if (VERSION == null) {
+            return null;
+        }
+        return find(() -> Class.forName("org.bukkit.craftbukkit." + VERSION + "." + name));
+    }
+
+    private static boolean anyNull(@Nonnull Object[] values) {
+        for (Object value : values) {
+            if (value == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface Resolver<T> {
+
+        T resolve() throws ReflectiveOperationException;
+    }
+}
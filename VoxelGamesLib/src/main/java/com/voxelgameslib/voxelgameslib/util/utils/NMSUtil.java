@@ -1,47 +1,30 @@
 package com.voxelgameslib.voxelgameslib.util.utils;
 
-import java.lang.reflect.Method;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 
-import org.bukkit.Bukkit;
 import org.bukkit.World;
 
 public class NMSUtil {
 
     private static final Logger log = Logger.getLogger(NMSUtil.class.getName());
-    private static Method worldGetHandle;
-    private static Class nmsWorldServer;
-    private static Method worldServerFlushSave;
+    private static boolean warned;
 
     public static void flushSaveQueue(@Nonnull World world) {
-        try {
-            if (nmsWorldServer == null) {
-                nmsWorldServer = getNmsClass("WorldServer");
-            }
-            if (worldGetHandle == null) {
-                worldGetHandle = world.getClass().getMethod("getHandle");
-            }
-            if (worldServerFlushSave == null) {
-                worldServerFlushSave = nmsWorldServer.getMethod("flushSave");
+        if (NMSBridge.CRAFTWORLD_GETHANDLE == null || NMSBridge.WORLDSERVER_FLUSHSAVE == null) {
+            if (!warned) {
+                warned = true;
+                log.warning("This server version can't flush the save queue, worlds are saved by the server instead");
             }
-
-            Object worldServer = worldGetHandle.invoke(world);
-            worldServerFlushSave.invoke(worldServer);
-        } catch (Exception ex) {
-            log.warning("Error while trying to flush the save queue!");
-            ex.printStackTrace();
+            return;
         }
-    }
 
-
-    @Nonnull
-    private static Class getNmsClass(@Nonnull String name) throws ClassNotFoundException {
-        return Class.forName("net.minecraft.server." + getNmsVersion() + "." + name);
-    }
-
-    @Nonnull
-    private static String getNmsVersion() {
-        return Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
+        try {
+            Object worldServer = (Object) NMSBridge.CRAFTWORLD_GETHANDLE.invokeExact((Object) world);
+            NMSBridge.WORLDSERVER_FLUSHSAVE.invokeExact(worldServer);
+        } catch (Throwable ex) {
+            log.log(Level.WARNING, "Error while trying to flush the save queue!", ex);
+        }
     }
 }
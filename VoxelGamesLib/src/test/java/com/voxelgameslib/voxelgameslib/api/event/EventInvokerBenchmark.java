@@ -0,0 +1,126 @@
+package com.voxelgameslib.voxelgameslib.api.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.components.user.User;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+/**
+ * Compares the reflective dispatch of {@link GameEvent} methods with the invokers from {@link EventInvokerFactory}.
+ * Run with <code>mvn -Pbenchmark test-compile</code> and then execute the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventInvokerBenchmark {
+
+    private BenchmarkListener listener;
+    private BenchmarkEvent event;
+
+    private Method method;
+    private Method userMethod;
+    private EventInvoker invoker;
+    private EventInvoker userInvoker;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        listener = new BenchmarkListener();
+        event = new BenchmarkEvent();
+
+        method = BenchmarkListener.class.getMethod("onEvent", BenchmarkEvent.class);
+        userMethod = BenchmarkListener.class.getMethod("onEventWithUser", BenchmarkEvent.class, User.class);
+        invoker = EventInvokerFactory.create(listener, method);
+        userInvoker = EventInvokerFactory.create(listener, userMethod);
+    }
+
+    @Benchmark
+    public void reflection(@Nonnull Blackhole blackhole) throws Exception {
+        // same as the old EventHandler#callEvent
+        if (method.getParameterCount() == 2) {
+            method.invoke(listener, event, null);
+        } else {
+            method.invoke(listener, event);
+        }
+        blackhole.consume(listener.calls);
+    }
+
+    @Benchmark
+    public void reflectionWithUser(@Nonnull Blackhole blackhole) throws Exception {
+        if (userMethod.getParameterCount() == 2) {
+            userMethod.invoke(listener, event, null);
+        } else {
+            userMethod.invoke(listener, event);
+        }
+        blackhole.consume(listener.calls);
+    }
+
+    @Benchmark
+    public void invoker(@Nonnull Blackhole blackhole) throws Exception {
+        invoker.invoke(event, null);
+        blackhole.consume(listener.calls);
+    }
+
+    @Benchmark
+    public void invokerWithUser(@Nonnull Blackhole blackhole) throws Exception {
+        userInvoker.invoke(event, null);
+        blackhole.consume(listener.calls);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventInvokerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class BenchmarkListener implements Listener {
+
+        private long calls;
+
+        @GameEvent
+        public void onEvent(@Nonnull BenchmarkEvent event) {
+            calls++;
+        }
+
+        @GameEvent
+        public void onEventWithUser(@Nonnull BenchmarkEvent event, User user) {
+            calls++;
+        }
+    }
+
+    public static class BenchmarkEvent extends Event {
+
+        private static final HandlerList handlers = new HandlerList();
+
+        @Nonnull
+        @Override
+        public HandlerList getHandlers() {
+            return handlers;
+        }
+
+        @Nonnull
+        public static HandlerList getHandlerList() {
+            return handlers;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.voxelgameslib.voxelgameslib.api.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.components.user.GamePlayer;
+import com.voxelgameslib.voxelgameslib.components.user.User;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+
+/**
+ * Compares the old stream based membership checks with the hashed id sets and the user index of the {@link
+ * GameHandler}. Run with <code>mvn -Pbenchmark test-compile</code> and then execute the main method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameMembershipBenchmark {
+
+    @Param("1000")
+    private int users;
+    @Param("100")
+    private int games;
+
+    private GameHandler gameHandler;
+    private List<AbstractGame> gameList;
+    private List<UUID> userIds;
+    private int next;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        gameHandler = new GameHandler();
+        Field gameHandlerField = AbstractGame.class.getDeclaredField("gameHandler");
+        gameHandlerField.setAccessible(true);
+
+        gameList = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            AbstractGame game = new AbstractGame() {
+                @Override
+                public void initGameFromModule() {
+
+                }
+            };
+            game.setUuid(UUID.randomUUID());
+            gameHandlerField.set(game, gameHandler);
+            gameList.add(game);
+        }
+
+        userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            UUID id = UUID.randomUUID();
+            userIds.add(id);
+            // every tenth user is spectating
+            gameList.get(i % games).addUser(createUser(id), i % 10 == 0);
+        }
+    }
+
+    @Nonnull
+    private User createUser(@Nonnull UUID id) {
+        GamePlayer user = new GamePlayer();
+        user.setUuid(id);
+        user.setUserData(new UserData());
+        user.getUserData().setUuid(id);
+        return user;
+    }
+
+    @Nonnull
+    private UUID nextUser() {
+        next = (next + 1) % users;
+        return userIds.get(next);
+    }
+
+    @Benchmark
+    public List<Game> streamScan() {
+        // same as the old GameHandler#getGames with the old AbstractGame#isPlaying/isSpectating
+        UUID id = nextUser();
+        List<Game> result = new ArrayList<>();
+        for (AbstractGame game : gameList) {
+            if (game.getPlayers().stream().anyMatch(u -> u.getUuid().equals(id))) {
+                result.add(game);
+                continue;
+            }
+
+            if (game.getSpectators().stream().anyMatch(u -> u.getUuid().equals(id))) {
+                result.add(game);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Game> userIndex() {
+        return gameHandler.getGames(nextUser(), true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameMembershipBenchmark.class.getSimpleName()).build()).run();
+    }
+}
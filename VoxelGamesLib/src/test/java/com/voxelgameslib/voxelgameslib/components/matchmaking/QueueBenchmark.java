@@ -0,0 +1,104 @@
+package com.voxelgameslib.voxelgameslib.components.matchmaking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.api.game.AbstractGame;
+import com.voxelgameslib.voxelgameslib.api.game.GameMode;
+import com.voxelgameslib.voxelgameslib.components.elo.RatingWrapper;
+import com.voxelgameslib.voxelgameslib.components.user.GamePlayer;
+import com.voxelgameslib.voxelgameslib.components.user.User;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+
+import jskills.Rating;
+
+/**
+ * Synthetic load for the matchmaking {@link Queue}: thousands of waiting users with normal distributed ratings. Every
+ * invocation is one server tick (50ms later than the last one), matched users queue up again right away so the queue
+ * stays full. Run with <code>mvn -Pbenchmark test-compile</code> and then execute the main method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    @Param({"1000", "5000"})
+    private int users;
+    @Param({"2", "8"})
+    private int matchSize;
+    @Param({"true", "false"})
+    private boolean ranked;
+
+    private MatchmakingConfig config;
+    private Queue queue;
+    private long now;
+
+    @Setup
+    public void setup() {
+        GameMode mode = new GameMode("Benchmark", AbstractGame.class);
+        config = new MatchmakingConfig();
+        queue = new Queue(mode, ranked, matchSize, config);
+
+        Random random = new Random(42);
+        now = 0;
+        for (int i = 0; i < users; i++) {
+            double mean = 25 + random.nextGaussian() * 8;
+            queue.add(createUser(mode, mean), now);
+        }
+    }
+
+    @Nonnull
+    private User createUser(@Nonnull GameMode mode, double mean) {
+        UUID id = UUID.randomUUID();
+        GamePlayer user = new GamePlayer();
+        user.setUuid(id);
+        user.setUserData(new UserData());
+        user.getUserData().setUuid(id);
+        user.getRatings().put(mode.getName(), new RatingWrapper(new Rating(mean, 8.333)));
+        return user;
+    }
+
+    private int requeue(@Nonnull List<List<QueueEntry>> matches) {
+        for (List<QueueEntry> match : matches) {
+            match.forEach(entry -> queue.add(entry.getUser(), now));
+        }
+        return matches.size();
+    }
+
+    @Benchmark
+    public int tickUnbounded() {
+        now += 50;
+        return requeue(queue.tick(now, Long.MAX_VALUE));
+    }
+
+    @Benchmark
+    public int tickBudgeted() {
+        now += 50;
+        return requeue(queue.tick(now, TimeUnit.MICROSECONDS.toNanos(config.tickBudget)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(QueueBenchmark.class.getSimpleName()).build()).run();
+    }
+}
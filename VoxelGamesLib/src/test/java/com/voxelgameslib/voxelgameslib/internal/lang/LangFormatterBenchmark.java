@@ -0,0 +1,71 @@
+package com.voxelgameslib.voxelgameslib.internal.lang;
+
+import net.kyori.text.TextComponent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Compares parsing a translation for every message (what Lang#trans used to do) with rendering a {@link LangTemplate}
+ * that was compiled once. Run with <code>mvn -Pbenchmark test-compile</code> and then execute the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LangFormatterBenchmark {
+
+    private String[] args;
+    private String[] values;
+    private LangTemplate template;
+
+    @Setup
+    public void setup() {
+        args = LangKey.GAME_ANNOUNCE_GAME_STARTED.getArgs();
+        values = new String[]{"/game join 4b1f2c3d-0000-0000-0000-000000000000", "MiniDigger", "1vs1"};
+        template = LangTemplate.compile(LangKey.GAME_ANNOUNCE_GAME_STARTED.getDefaultValue(), args);
+    }
+
+    @Benchmark
+    @Nonnull
+    public TextComponent parse() {
+        // same as the old Lang#string + Lang#parseFormat
+        String string = LangKey.GAME_ANNOUNCE_GAME_STARTED.getDefaultValue();
+        for (int i = 0; i < args.length; i++) {
+            string = string.replace("{" + args[i] + "}", values[i]);
+        }
+        return LangFormatter.parseFormat(String.format(string, (Object[]) values));
+    }
+
+    @Benchmark
+    @Nonnull
+    public TextComponent template() {
+        return template.render(values).orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    @Nonnull
+    public LangTemplate compile() {
+        return LangTemplate.compile(LangKey.GAME_ANNOUNCE_GAME_STARTED.getDefaultValue(), args);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LangFormatterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
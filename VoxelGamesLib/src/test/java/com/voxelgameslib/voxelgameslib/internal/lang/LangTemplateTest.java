@@ -0,0 +1,82 @@
+package com.voxelgameslib.voxelgameslib.internal.lang;
+
+import net.kyori.text.TextComponent;
+import net.kyori.text.serializer.ComponentSerializers;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Checks that {@link LangTemplate#render(String[])} produces the same components as the parser for every translation
+ */
+public class LangTemplateTest {
+
+    @Test
+    public void rendersLikeParser() {
+        for (LangKey key : LangKey.values()) {
+            String[] values = new String[key.getArgs().length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = "value " + i;
+            }
+
+            Optional<TextComponent> rendered = compile(key).render(values);
+            if (key.getDefaultValue().indexOf('%') != -1) {
+                // String.format is only done by the parser
+                assertThat(key.name(), rendered.isPresent(), is(false));
+                continue;
+            }
+            assertThat(key.name(), rendered.isPresent(), is(true));
+            assertThat(key.name(), json(rendered.get()), is(json(parse(key, values))));
+        }
+    }
+
+    @Test
+    public void fallsBackForMarkupInArguments() {
+        String[][] samples = {{"{red}"}, {"}"}, {"a{b"}, {"say \"hi\""}, {"\""}, {"red"}, {"/bold"}, {"click"}};
+        for (LangKey key : LangKey.values()) {
+            if (key.getArgs().length == 0 || key.getDefaultValue().indexOf('%') != -1) {
+                continue;
+            }
+
+            for (String[] sample : samples) {
+                String[] values = new String[key.getArgs().length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = sample[0];
+                }
+
+                // either the template can render it the same way or it needs to leave it to the parser
+                Optional<TextComponent> rendered = compile(key).render(values);
+                if (rendered.isPresent()) {
+                    assertThat(key.name() + " " + sample[0], json(rendered.get()), is(json(parse(key, values))));
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    private LangTemplate compile(@Nonnull LangKey key) {
+        return LangTemplate.compile(key.getDefaultValue(), key.getArgs());
+    }
+
+    /**
+     * Same as Lang#string followed by Lang#parseFormat
+     */
+    @Nonnull
+    private TextComponent parse(@Nonnull LangKey key, @Nonnull String[] values) {
+        String string = key.getDefaultValue();
+        for (int i = 0; i < values.length; i++) {
+            string = string.replace("{" + key.getArgs()[i] + "}", values[i]);
+        }
+        return LangFormatter.parseFormat(String.format(string, (Object[]) values));
+    }
+
+    @Nonnull
+    private String json(@Nonnull TextComponent component) {
+        return ComponentSerializers.JSON.serialize(component);
+    }
+}
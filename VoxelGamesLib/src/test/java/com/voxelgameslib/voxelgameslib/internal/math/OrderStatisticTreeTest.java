@@ -0,0 +1,111 @@
+package com.voxelgameslib.voxelgameslib.internal.math;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import javax.annotation.Nonnull;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Compares {@link OrderStatisticTree} with a sorted list
+ */
+public class OrderStatisticTreeTest {
+
+    // sorted by value, ties broken by id like the leaderboard does it
+    private static final Comparator<int[]> ORDER = Comparator.<int[]>comparingInt(e -> e[0]).thenComparingInt(e -> e[1]);
+
+    @Test
+    public void matchesSortedList() {
+        Random random = new Random(42);
+        OrderStatisticTree<int[]> tree = new OrderStatisticTree<>(ORDER);
+        List<int[]> list = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            // few distinct values, so there are a lot of ties
+            int[] element = {random.nextInt(20), random.nextInt(200)};
+            if (random.nextInt(3) == 0) {
+                assertThat(tree.remove(element), is(removeFrom(list, element)));
+            } else {
+                assertThat(tree.add(element), is(addTo(list, element)));
+            }
+            assertThat(tree.size(), is(list.size()));
+            assertThat(tree.contains(element), is(indexOf(list, element) >= 0));
+
+            if (i % 50 == 0) {
+                compare(tree, list);
+            }
+        }
+        compare(tree, list);
+    }
+
+    @Test
+    public void rankOfMissingElement() {
+        OrderStatisticTree<int[]> tree = new OrderStatisticTree<>(ORDER);
+        tree.add(new int[]{1, 0});
+        tree.add(new int[]{3, 0});
+        tree.add(new int[]{5, 0});
+
+        assertThat(tree.rank(new int[]{0, 0}), is(0));
+        assertThat(tree.rank(new int[]{2, 0}), is(1));
+        assertThat(tree.rank(new int[]{3, 1}), is(2));
+        assertThat(tree.rank(new int[]{9, 0}), is(3));
+        assertThat(tree.remove(new int[]{2, 0}), is(false));
+        assertThat(tree.size(), is(3));
+    }
+
+    @Test
+    public void firstOfEmptyTree() {
+        OrderStatisticTree<int[]> tree = new OrderStatisticTree<>(ORDER);
+        assertThat(tree.first(10).isEmpty(), is(true));
+        assertThat(tree.size(), is(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBounds() {
+        OrderStatisticTree<int[]> tree = new OrderStatisticTree<>(ORDER);
+        tree.add(new int[]{1, 0});
+        tree.get(1);
+    }
+
+    private void compare(@Nonnull OrderStatisticTree<int[]> tree, @Nonnull List<int[]> list) {
+        for (int i = 0; i < list.size(); i++) {
+            assertThat(tree.get(i), is(list.get(i)));
+            assertThat(tree.rank(list.get(i)), is(i));
+        }
+
+        List<int[]> first = tree.first(list.size() / 2);
+        assertThat(first.size(), is(list.size() / 2));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.get(i), is(list.get(i)));
+        }
+        assertThat(tree.first(list.size() + 10).size(), is(list.size()));
+    }
+
+    private boolean addTo(@Nonnull List<int[]> list, @Nonnull int[] element) {
+        int index = indexOf(list, element);
+        if (index >= 0) {
+            return false;
+        }
+        list.add(-index - 1, element);
+        return true;
+    }
+
+    private boolean removeFrom(@Nonnull List<int[]> list, @Nonnull int[] element) {
+        int index = indexOf(list, element);
+        if (index < 0) {
+            return false;
+        }
+        list.remove(index);
+        return true;
+    }
+
+    private int indexOf(@Nonnull List<int[]> list, @Nonnull int[] element) {
+        return Collections.binarySearch(list, element, ORDER);
+    }
+}
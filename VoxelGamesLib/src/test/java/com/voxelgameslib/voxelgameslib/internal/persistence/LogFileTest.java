@@ -0,0 +1,158 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Checks that {@link LogFile} cuts off records that were only partially written or got corrupted
+ */
+public class LogFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsAppendedRecords() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("test.log");
+        long first;
+        long second;
+        try (LogFile log = open(path, new ArrayList<>())) {
+            first = log.append(bytes("first"));
+            second = log.append(bytes("second"));
+            assertThat(string(log.read(first)), is("first"));
+            assertThat(string(log.read(second)), is("second"));
+        }
+
+        List<String> records = new ArrayList<>();
+        try (LogFile log = open(path, records)) {
+            assertThat(records.size(), is(2));
+            assertThat(records.get(0), is("first"));
+            assertThat(records.get(1), is("second"));
+            assertThat(log.size(), is(Files.size(path)));
+        }
+    }
+
+    @Test
+    public void cutsOffTruncatedTail() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("test.log");
+        long second;
+        try (LogFile log = open(path, new ArrayList<>())) {
+            log.append(bytes("first"));
+            second = log.append(bytes("second"));
+        }
+
+        // the server crashed while the second record was written
+        truncate(path, Files.size(path) - 3);
+
+        List<String> records = new ArrayList<>();
+        try (LogFile log = open(path, records)) {
+            assertThat(records.size(), is(1));
+            assertThat(records.get(0), is("first"));
+            assertThat(log.size(), is(second));
+            assertThat(Files.size(path), is(second));
+
+            // new records go where the broken one was
+            assertThat(log.append(bytes("third")), is(second));
+        }
+
+        records.clear();
+        try (LogFile log = open(path, records)) {
+            assertThat(records.size(), is(2));
+            assertThat(records.get(1), is("third"));
+        }
+    }
+
+    @Test
+    public void cutsOffTruncatedHeader() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("test.log");
+        long second;
+        try (LogFile log = open(path, new ArrayList<>())) {
+            log.append(bytes("first"));
+            second = log.append(bytes("second"));
+        }
+
+        truncate(path, second + 5);
+
+        List<String> records = new ArrayList<>();
+        try (LogFile log = open(path, records)) {
+            assertThat(records.size(), is(1));
+            assertThat(log.size(), is(second));
+        }
+    }
+
+    @Test
+    public void cutsOffBadCrc() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("test.log");
+        long second;
+        try (LogFile log = open(path, new ArrayList<>())) {
+            log.append(bytes("first"));
+            second = log.append(bytes("second"));
+            log.append(bytes("third"));
+        }
+
+        // flip a bit in the payload of the second record, everything after it can't be trusted anymore
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(second + 10);
+            int b = file.read();
+            file.seek(second + 10);
+            file.write(b ^ 1);
+        }
+
+        List<String> records = new ArrayList<>();
+        try (LogFile log = open(path, records)) {
+            assertThat(records.size(), is(1));
+            assertThat(records.get(0), is("first"));
+            assertThat(log.size(), is(second));
+            assertThat(Files.size(path), is(second));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readFailsOnBadCrc() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("test.log");
+        try (LogFile log = open(path, new ArrayList<>())) {
+            long position = log.append(bytes("first"));
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.seek(position + 8);
+                file.write('F');
+            }
+            log.read(position);
+        }
+    }
+
+    @Nonnull
+    private LogFile open(@Nonnull Path path, @Nonnull List<String> records) throws IOException {
+        LogFile log = new LogFile(path);
+        log.open((position, size, payload) -> records.add(string(payload)));
+        return log;
+    }
+
+    private void truncate(@Nonnull Path path, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size);
+        }
+    }
+
+    @Nonnull
+    private byte[] bytes(@Nonnull String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    private String string(@Nonnull byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,141 @@
+package com.voxelgameslib.voxelgameslib.internal.persistence;
+
+import com.google.inject.Guice;
+import com.google.inject.name.Names;
+
+import net.kyori.text.TextComponent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+
+import com.voxelgameslib.voxelgameslib.api.stats.StatInstance;
+import com.voxelgameslib.voxelgameslib.api.stats.StatType;
+import com.voxelgameslib.voxelgameslib.internal.config.GlobalConfig;
+import com.voxelgameslib.voxelgameslib.internal.persistence.model.UserData;
+import com.voxelgameslib.voxelgameslib.util.Pair;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Checks that the index of the {@link LogPersistenceProvider} is the same after reopening and compacting the log
+ */
+public class LogPersistenceProviderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GlobalConfig config;
+    private LogPersistenceProvider provider;
+
+    @Before
+    public void setUp() {
+        config = new GlobalConfig();
+        // compaction is triggered by the tests
+        config.persistence.compactionMinSize = Long.MAX_VALUE;
+        config.persistence.compactionInterval = 60 * 60;
+        provider = create();
+    }
+
+    @After
+    public void tearDown() {
+        provider.disable();
+    }
+
+    @Test
+    public void statsOverrideUser() {
+        UUID id = UUID.randomUUID();
+        provider.saveUser(user(id, "Steve", 1));
+        provider.saveStats(Collections.singletonList(new StatInstance(id, StatType.JOIN_COUNT, 5)));
+        assertThat(top(id), is(5d));
+
+        reopen();
+        assertThat(top(id), is(5d));
+
+        // a newer user record wins again
+        provider.saveUser(user(id, "Steve", 7));
+        assertThat(top(id), is(7d));
+
+        reopen();
+        assertThat(top(id), is(7d));
+    }
+
+    @Test
+    public void reopenAfterCompaction() throws IOException {
+        UUID steve = UUID.randomUUID();
+        UUID alex = UUID.randomUUID();
+        provider.saveUser(user(steve, "Steve", 0));
+        provider.saveUser(user(alex, "Alex", 0));
+        for (int i = 1; i <= 100; i++) {
+            provider.saveStats(Collections.singletonList(new StatInstance(steve, StatType.JOIN_COUNT, i)));
+        }
+        provider.saveUser(user(alex, "Alex", 3));
+
+        File log = new File(folder.getRoot(), "persistence.log");
+        long before = Files.size(log.toPath());
+        provider.compact();
+        assertThat(Files.size(log.toPath()) < before, is(true));
+        assertThat(top(steve), is(100d));
+        assertThat(top(alex), is(3d));
+
+        reopen();
+        assertThat(top(steve), is(100d));
+        assertThat(top(alex), is(3d));
+        assertThat(provider.getDisplayNames(Collections.singletonList(alex)).get(alex), is(TextComponent.of("Alex")));
+        assertThat(provider.loadUser(steve).isPresent(), is(true));
+        assertThat(provider.loadUser(steve).get().getName(), is("Steve"));
+
+        // the compacted log can be appended to
+        provider.saveStats(Collections.singletonList(new StatInstance(alex, StatType.JOIN_COUNT, 200)));
+        reopen();
+        assertThat(top(alex), is(200d));
+        assertThat(top(steve), is(100d));
+    }
+
+    @Nonnull
+    private LogPersistenceProvider create() {
+        LogPersistenceProvider created = Guice.createInjector(binder -> {
+            binder.bind(File.class).annotatedWith(Names.named("DataFolder")).toInstance(folder.getRoot());
+            binder.bind(GlobalConfig.class).toInstance(config);
+        }).getInstance(LogPersistenceProvider.class);
+        created.enable();
+        return created;
+    }
+
+    private void reopen() {
+        provider.disable();
+        provider = create();
+    }
+
+    @Nonnull
+    private UserData user(@Nonnull UUID id, @Nonnull String name, double joins) {
+        UserData user = new UserData();
+        user.setUuid(id);
+        user.setName(name);
+        user.setRawDisplayName(name);
+        user.setDisplayName(TextComponent.of(name));
+        user.getStats().put(StatType.JOIN_COUNT, new StatInstance(id, StatType.JOIN_COUNT, joins));
+        return user;
+    }
+
+    private double top(@Nonnull UUID id) {
+        List<Pair<UUID, Double>> top = provider.getTopWithUUID(StatType.JOIN_COUNT, 10);
+        for (Pair<UUID, Double> entry : top) {
+            if (entry.getFirst().equals(id)) {
+                return entry.getSecond();
+            }
+        }
+        throw new AssertionError(id + " is not in the top list");
+    }
+}
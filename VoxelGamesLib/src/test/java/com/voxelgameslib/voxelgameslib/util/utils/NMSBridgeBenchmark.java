@@ -0,0 +1,125 @@
+package com.voxelgameslib.voxelgameslib.util.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Compares the reflective calls ChatUtil used to do for every message with the method handles of {@link NMSBridge}.
+ * There is no server in the tests, so the calls go to classes that look like CraftPlayer, EntityPlayer and
+ * ChatSerializer. Run with <code>mvn -Pbenchmark test-compile</code> and then execute the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NMSBridgeBenchmark {
+
+    private static final Method GETHANDLE_METHOD;
+    private static final Method SERIALIZER_METHOD;
+    private static final Method SENDMESSAGE_METHOD;
+
+    private static final MethodHandle GETHANDLE;
+    private static final MethodHandle SERIALIZER;
+    private static final MethodHandle SENDMESSAGE;
+
+    static {
+        try {
+            GETHANDLE_METHOD = CraftPlayer.class.getDeclaredMethod("getHandle");
+            SERIALIZER_METHOD = ChatSerializer.class.getDeclaredMethod("a", String.class);
+            SENDMESSAGE_METHOD = EntityPlayer.class.getDeclaredMethod("sendMessage", ChatComponent.class);
+
+            // resolved the same way the bridge does it
+            GETHANDLE = NMSBridge.virtual(CraftPlayer.class, "getHandle", EntityPlayer.class);
+            SENDMESSAGE = NMSBridge.virtual(EntityPlayer.class, "sendMessage", void.class, ChatComponent.class);
+            SERIALIZER = MethodHandles.publicLookup()
+                    .findStatic(ChatSerializer.class, "a", MethodType.methodType(ChatComponent.class, String.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final CraftPlayer player = new CraftPlayer();
+    private final String json = "{\"text\":\"Hello\"}";
+
+    @Benchmark
+    public void direct(@Nonnull Blackhole blackhole) {
+        player.getHandle().sendMessage(ChatSerializer.a(json));
+        blackhole.consume(player.handle.received);
+    }
+
+    @Benchmark
+    public void reflection(@Nonnull Blackhole blackhole) throws Exception {
+        // same as the old ChatUtil#sendMessage
+        SENDMESSAGE_METHOD.invoke(GETHANDLE_METHOD.invoke(player), SERIALIZER_METHOD.invoke(null, json));
+        blackhole.consume(player.handle.received);
+    }
+
+    @Benchmark
+    public void methodHandle(@Nonnull Blackhole blackhole) throws Throwable {
+        Object handle = (Object) GETHANDLE.invokeExact((Object) player);
+        Object component = (Object) SERIALIZER.invokeExact((Object) json);
+        SENDMESSAGE.invokeExact(handle, component);
+        blackhole.consume(player.handle.received);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NMSBridgeBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class CraftPlayer {
+
+        private final EntityPlayer handle = new EntityPlayer();
+
+        @Nonnull
+        public EntityPlayer getHandle() {
+            return handle;
+        }
+    }
+
+    public static class EntityPlayer {
+
+        private ChatComponent received;
+
+        public void sendMessage(@Nonnull ChatComponent component) {
+            received = component;
+        }
+    }
+
+    public static class ChatComponent {
+
+        private final String json;
+
+        public ChatComponent(@Nonnull String json) {
+            this.json = json;
+        }
+    }
+
+    public static class ChatSerializer {
+
+        @Nonnull
+        public static ChatComponent a(@Nonnull String json) {
+            return new ChatComponent(json);
+        }
+    }
+}